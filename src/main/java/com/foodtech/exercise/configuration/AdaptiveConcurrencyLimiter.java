@@ -0,0 +1,71 @@
+package com.foodtech.exercise.configuration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits the number of requests in flight, adapting the limit to their latency: it grows by one after each
+ * request that completes within the latency target while the limiter is at least half used, and shrinks by
+ * {@code backoffRatio} after each request that is slower or fails (additive increase, multiplicative decrease).
+ * The limit never exceeds {@code maxLimit}, which is derived from the connection pool headroom.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyTargetNanos;
+    private final double backoffRatio;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, long latencyTargetNanos, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("The limits must satisfy 1 <= minLimit <= maxLimit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(maxLimit);
+    }
+
+    /**
+     * Admits a request if fewer requests than the current limit are in flight. Every admitted request must be
+     * followed by exactly one {@link #release(long, boolean)}.
+     *
+     * @return {@code true} if the request was admitted
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and adapts the limit to how it went.
+     *
+     * @param latencyNanos how long the request took
+     * @param success      {@code false} if the request failed on the server side
+     */
+    public void release(long latencyNanos, boolean success) {
+        int current = inFlight.getAndDecrement();
+        if (!success || latencyNanos > latencyTargetNanos) {
+            limit.updateAndGet(l -> Math.max(minLimit, (int) (l * backoffRatio)));
+        } else if (current * 2 >= limit.get()) {
+            limit.updateAndGet(l -> Math.min(maxLimit, l + 1));
+        }
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
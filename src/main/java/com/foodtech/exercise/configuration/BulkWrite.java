@@ -0,0 +1,17 @@
+package com.foodtech.exercise.configuration;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a write endpoint that works on many rows per request. Write admission gives these endpoints their own
+ * concurrency budget, so that their latency does not shrink the limit of single-row writes.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BulkWrite {
+}
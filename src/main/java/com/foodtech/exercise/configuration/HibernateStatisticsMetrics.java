@@ -0,0 +1,97 @@
+package com.foodtech.exercise.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes Hibernate session factory statistics and second-level cache statistics per region on the
+ * actuator metrics endpoint. Requires {@code hibernate.generate_statistics=true}. Hibernate does not count
+ * evictions, so they are read from the JCache statistics MXBean of each region, which Caffeine registers when
+ * {@code monitoring.statistics} is enabled in {@code application.conf}.
+ */
+@Component
+@RequiredArgsConstructor
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        bind(registry, statistics, "orm.statements", "prepared", Statistics::getPrepareStatementCount);
+        bind(registry, statistics, "orm.statements", "closed", Statistics::getCloseStatementCount);
+        bind(registry, statistics, "orm.entities", "loaded", Statistics::getEntityLoadCount);
+        bind(registry, statistics, "orm.entities", "fetched", Statistics::getEntityFetchCount);
+        bind(registry, statistics, "orm.entities", "inserted", Statistics::getEntityInsertCount);
+        bind(registry, statistics, "orm.entities", "updated", Statistics::getEntityUpdateCount);
+        bind(registry, statistics, "orm.entities", "deleted", Statistics::getEntityDeleteCount);
+        bind(registry, statistics, "orm.collections", "loaded", Statistics::getCollectionLoadCount);
+        bind(registry, statistics, "orm.collections", "fetched", Statistics::getCollectionFetchCount);
+        bind(registry, statistics, "orm.queries", "executed", Statistics::getQueryExecutionCount);
+        bind(registry, statistics, "orm.flushes", "executed", Statistics::getFlushCount);
+        bind(registry, statistics, "orm.second.level.cache", "hit", Statistics::getSecondLevelCacheHitCount);
+        bind(registry, statistics, "orm.second.level.cache", "miss", Statistics::getSecondLevelCacheMissCount);
+        bind(registry, statistics, "orm.query.cache", "hit", Statistics::getQueryCacheHitCount);
+        bind(registry, statistics, "orm.query.cache", "miss", Statistics::getQueryCacheMissCount);
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            bindRegion(registry, statistics, region, "cache.gets", "hit", CacheRegionStatistics::getHitCount);
+            bindRegion(registry, statistics, region, "cache.gets", "miss", CacheRegionStatistics::getMissCount);
+            bindRegion(registry, statistics, region, "cache.puts", null, CacheRegionStatistics::getPutCount);
+            FunctionCounter.builder("cache.evictions", ManagementFactory.getPlatformMBeanServer(),
+                            server -> evictions(server, region))
+                    .tag("cache", region)
+                    .tag("cacheManager", "hibernate")
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Reads the standard {@code CacheEvictions} attribute of the region's JCache statistics MXBean, or 0 while
+     * the region's cache has not been created.
+     */
+    private static long evictions(MBeanServer server, String region) {
+        try {
+            Set<ObjectName> names = server.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + region + ",*"), null);
+            long evictions = 0;
+            for (ObjectName name : names) {
+                evictions += ((Number) server.getAttribute(name, "CacheEvictions")).longValue();
+            }
+            return evictions;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private void bind(MeterRegistry registry, Statistics statistics, String name, String type,
+                      ToLongFunction<Statistics> count) {
+        FunctionCounter.builder(name, statistics, count::applyAsLong)
+                .tag("type", type)
+                .register(registry);
+    }
+
+    private void bindRegion(MeterRegistry registry, Statistics statistics, String region, String name, String result,
+                            ToLongFunction<CacheRegionStatistics> count) {
+        FunctionCounter.Builder<Statistics> builder = FunctionCounter.builder(name, statistics, s -> {
+            CacheRegionStatistics regionStatistics = s.getCacheRegionStatistics(region);
+            return regionStatistics == null ? 0 : count.applyAsLong(regionStatistics);
+        }).tag("cache", region).tag("cacheManager", "hibernate");
+        if (result != null) {
+            builder.tag("result", result);
+        }
+        builder.register(registry);
+    }
+}
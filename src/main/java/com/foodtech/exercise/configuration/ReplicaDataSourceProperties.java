@@ -0,0 +1,37 @@
+package com.foodtech.exercise.configuration;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The read replicas used by {@link ReplicaRoutingDataSource}, bound from {@code app.datasource.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReplicaDataSourceProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Replicas that lag behind the primary by more than this are skipped until they catch up.
+     */
+    private Duration replicaMaxLag = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+
+        /**
+         * Kept short so an unreachable replica is detected quickly by the health check.
+         */
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+    }
+}
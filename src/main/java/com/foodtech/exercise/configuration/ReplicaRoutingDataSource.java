@@ -0,0 +1,131 @@
+package com.foodtech.exercise.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only transactions to the read replicas, round robin, and everything else to the primary.
+ * A scheduled health check removes replicas that are unreachable or lag behind the primary by more than
+ * the configured maximum, and adds them back once they recover; with no replica available, reads fall back
+ * to the primary. Must be wrapped in a {@code LazyConnectionDataSourceProxy} so the connection is obtained
+ * after the transaction has been marked read-only.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    static final String PRIMARY = "primary";
+
+    /**
+     * Whether the server is a replica, whether it has replayed all the WAL it received, the age of the last
+     * replayed transaction and whether its WAL receiver is streaming from the primary. That age keeps growing
+     * while the primary is idle, so it only counts as lag while replay is behind or the receiver is disconnected:
+     * a replica that lost its primary has replayed everything it received, but is not caught up. The receiver
+     * status is only visible to members of {@code pg_read_all_stats} (or {@code pg_monitor}).
+     */
+    private static final String LAG_QUERY = "SELECT pg_is_in_recovery(), " +
+            "pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn(), " +
+            "COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0), " +
+            "EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming')";
+    private static final int LAG_QUERY_TIMEOUT_SECONDS = 2;
+
+    private final Map<String, DataSource> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> available = Collections.emptyList();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maxLag = maxLag;
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        List<String> keys = available;
+        if (keys.isEmpty()) {
+            return PRIMARY;
+        }
+        return keys.get(Math.floorMod(next.getAndIncrement(), keys.size()));
+    }
+
+    /**
+     * Probes every replica and updates the set of replicas that receive reads.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica-health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        List<String> healthy = new ArrayList<>();
+        replicas.forEach((key, dataSource) -> {
+            if (isHealthy(key, dataSource)) {
+                healthy.add(key);
+            }
+        });
+        if (!healthy.equals(available)) {
+            log.info("Read replicas available: {}", healthy);
+        }
+        available = Collections.unmodifiableList(healthy);
+    }
+
+    public List<String> getAvailableReplicas() {
+        return available;
+    }
+
+    private boolean isHealthy(String key, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(LAG_QUERY_TIMEOUT_SECONDS);
+            try (ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                resultSet.next();
+                boolean caughtUp = !resultSet.getBoolean(1) || resultSet.getBoolean(4) && resultSet.getBoolean(2);
+                long lagMillis = caughtUp ? 0 : (long) (resultSet.getDouble(3) * 1000);
+                if (lagMillis > maxLag.toMillis()) {
+                    log.warn("Read replica {} lags {} ms behind the primary", key, lagMillis);
+                    return false;
+                }
+                return true;
+            }
+        } catch (SQLException e) {
+            log.warn("Read replica {} is unavailable: {}", key, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (DataSource dataSource : replicas.values()) {
+            if (dataSource instanceof Closeable) {
+                ((Closeable) dataSource).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.foodtech.exercise.configuration;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * A token bucket per key, refilled at a fixed rate up to a burst size. Each bucket is a single
+ * {@link AtomicLong} holding the time at which it will be full again (the generic cell rate algorithm),
+ * updated with compare-and-set, so acquiring a token takes no lock and buckets of different keys never
+ * contend beyond the striping of the underlying {@link ConcurrentHashMap}.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final LongSupplier clock;
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        this(permitsPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(double permitsPerSecond, int burst, LongSupplier clock) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("The rate and the burst must be positive");
+        }
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.capacityNanos = intervalNanos * burst;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes a token from the bucket of the given key.
+     *
+     * @param key the client and endpoint the token is taken for
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until the next token is available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong fullAt = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + intervalNanos;
+            long wait = next - now - capacityNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    /**
+     * Removes the buckets that are full again. They carry no state, a new bucket for the same key starts full.
+     */
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        buckets.values().removeIf(fullAt -> fullAt.get() <= now);
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
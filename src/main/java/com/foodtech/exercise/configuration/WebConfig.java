@@ -0,0 +1,21 @@
+package com.foodtech.exercise.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final WriteAdmissionInterceptor writeAdmissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(writeAdmissionInterceptor).addPathPatterns("/api/**");
+        registry.addInterceptor(new StatementMetricsInterceptor(meterRegistry)).addPathPatterns("/api/**");
+    }
+}
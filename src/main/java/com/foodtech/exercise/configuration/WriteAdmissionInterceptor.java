@@ -0,0 +1,184 @@
+package com.foodtech.exercise.configuration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.security.Principal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for write requests (every method but GET, HEAD and OPTIONS). A write is admitted if the
+ * token bucket of its client and endpoint has a token and the adaptive concurrency limit, which stays below the
+ * connection pool size so that reads always find a connection, is not reached. Anything else is answered right
+ * away with 429 Too Many Requests and counted as {@code http.server.requests.shed}.
+ * <p>
+ * Clients are identified by their authenticated principal, or else by their remote address. The
+ * {@code X-Client-Id} header is only trusted on requests from one of the configured trusted proxies, which set it
+ * for the clients behind them; anyone else could rotate it to get fresh buckets.
+ * <p>
+ * Endpoints annotated with {@link BulkWrite} are slow by design. They are admitted against a separate, smaller
+ * concurrency limit with a latency target of their own, and the regular limit leaves their connections free.
+ */
+@Component
+public class WriteAdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    static final String CLIENT_ID_HEADER = "X-Client-Id";
+    private static final String STARTED_ATTRIBUTE = WriteAdmissionInterceptor.class.getName() + ".started";
+    private static final String LIMITER_ATTRIBUTE = WriteAdmissionInterceptor.class.getName() + ".limiter";
+
+    private final boolean enabled;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final AdaptiveConcurrencyLimiter bulkConcurrencyLimiter;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> trustedProxies;
+
+    public WriteAdmissionInterceptor(MeterRegistry meterRegistry,
+                                     @Value("${app.write-admission.enabled:false}") boolean enabled,
+                                     @Value("${app.write-admission.rate-per-second:50}") double ratePerSecond,
+                                     @Value("${app.write-admission.burst:100}") int burst,
+                                     @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+                                     @Value("${app.write-admission.reserved-read-connections:2}") int reservedReadConnections,
+                                     @Value("${app.write-admission.latency-target-ms:250}") long latencyTargetMillis,
+                                     @Value("${app.write-admission.bulk.max-concurrency:2}") int bulkMaxConcurrency,
+                                     @Value("${app.write-admission.bulk.latency-target-ms:30000}") long bulkLatencyTargetMillis,
+                                     @Value("${app.write-admission.trusted-proxies:}") String[] trustedProxies) {
+        this(meterRegistry, enabled, new TokenBucketRateLimiter(ratePerSecond, burst),
+                new AdaptiveConcurrencyLimiter(1, Math.max(1, poolSize - reservedReadConnections - bulkMaxConcurrency),
+                        TimeUnit.MILLISECONDS.toNanos(latencyTargetMillis), 0.9),
+                new AdaptiveConcurrencyLimiter(1, bulkMaxConcurrency,
+                        TimeUnit.MILLISECONDS.toNanos(bulkLatencyTargetMillis), 0.9),
+                new HashSet<>(Arrays.asList(trustedProxies)));
+    }
+
+    WriteAdmissionInterceptor(MeterRegistry meterRegistry, boolean enabled,
+                              TokenBucketRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                              AdaptiveConcurrencyLimiter bulkConcurrencyLimiter, Set<String> trustedProxies) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.trustedProxies = Collections.unmodifiableSet(trustedProxies);
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.bulkConcurrencyLimiter = bulkConcurrencyLimiter;
+        Gauge.builder("write_admission.concurrency.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("write_admission.concurrency.in_flight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("write_admission.bulk_concurrency.limit", bulkConcurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("write_admission.bulk_concurrency.in_flight", bulkConcurrencyLimiter,
+                        AdaptiveConcurrencyLimiter::getInFlight)
+                .register(meterRegistry);
+        Gauge.builder("write_admission.rate_limiter.buckets", rateLimiter, TokenBucketRateLimiter::size)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async dispatches belong to a write that was admitted on its initial dispatch
+        if (!enabled || !isWrite(request) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        String endpoint = request.getMethod() + " " + uri(request);
+        long waitNanos = rateLimiter.tryAcquire(clientId(request) + " " + endpoint);
+        if (waitNanos > 0) {
+            reject(request, response, "rate_limit", waitNanos);
+            return false;
+        }
+        boolean bulk = handler instanceof HandlerMethod && ((HandlerMethod) handler).hasMethodAnnotation(BulkWrite.class);
+        AdaptiveConcurrencyLimiter limiter = bulk ? bulkConcurrencyLimiter : concurrencyLimiter;
+        if (!limiter.tryAcquire()) {
+            reject(request, response, bulk ? "bulk_concurrency" : "concurrency", TimeUnit.SECONDS.toNanos(1));
+            return false;
+        }
+        request.setAttribute(LIMITER_ATTRIBUTE, limiter);
+        request.setAttribute(STARTED_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    /**
+     * Called when the handler hands the write off to another thread, such as the write-behind queue. The
+     * request holds no connection while it waits for the result, so its slot is released right away; the queue
+     * applies its own backpressure.
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request, true);
+    }
+
+    /**
+     * Called once a write that was not handed off is done.
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request, ex == null && response.getStatus() < 500);
+    }
+
+    @Scheduled(fixedDelayString = "${app.write-admission.idle-eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        rateLimiter.evictIdle();
+    }
+
+    private void release(HttpServletRequest request, boolean success) {
+        Object started = request.getAttribute(STARTED_ATTRIBUTE);
+        if (started == null) {
+            return;
+        }
+        AdaptiveConcurrencyLimiter limiter = (AdaptiveConcurrencyLimiter) request.getAttribute(LIMITER_ATTRIBUTE);
+        request.removeAttribute(STARTED_ATTRIBUTE);
+        request.removeAttribute(LIMITER_ATTRIBUTE);
+        limiter.release(System.nanoTime() - (Long) started, success);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String reason, long waitNanos) {
+        Counter.builder("http.server.requests.shed")
+                .tag("method", request.getMethod())
+                .tag("uri", uri(request))
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1L, (waitNanos + 999_999_999L) / 1_000_000_000L)));
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    private static String uri(HttpServletRequest request) {
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return uri == null ? "UNKNOWN" : uri.toString();
+    }
+
+    private String clientId(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        if (principal != null) {
+            return "principal:" + principal.getName();
+        }
+        String remoteAddress = request.getRemoteAddr();
+        if (trustedProxies.contains(remoteAddress)) {
+            String clientId = request.getHeader(CLIENT_ID_HEADER);
+            if (clientId != null && !clientId.isEmpty()) {
+                return "client:" + clientId;
+            }
+        }
+        return "address:" + remoteAddress;
+    }
+}
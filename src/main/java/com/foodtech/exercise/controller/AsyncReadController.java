@@ -0,0 +1,57 @@
+package com.foodtech.exercise.controller;
+
+import com.foodtech.exercise.dto.response.DepartmentResponse;
+import com.foodtech.exercise.dto.response.DepartmentSummaryResponse;
+import com.foodtech.exercise.dto.response.KeysetPage;
+import com.foodtech.exercise.model.Employee;
+import com.foodtech.exercise.service.DepartmentService;
+import com.foodtech.exercise.service.EmployeeService;
+import com.foodtech.exercise.service.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.List;
+
+/**
+ * Non-blocking variants of the read endpoints. The servlet thread is released while the query runs on
+ * the bounded pool of {@link AsyncReadExecutor}.
+ */
+@RestController
+@RequestMapping("/api/v1/async")
+@RequiredArgsConstructor
+public class AsyncReadController {
+
+    private final EmployeeService employeeService;
+    private final DepartmentService departmentService;
+    private final AsyncReadExecutor asyncReadExecutor;
+
+    @GetMapping("/employees/paginated/keyset")
+    public DeferredResult<ResponseEntity<KeysetPage<Employee>>> getAllEmployeesKeyset(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetCursor.DEFAULT_SIZE) int size,
+            @RequestParam(required = false) Long departmentId) {
+        return asyncReadExecutor.submit(() -> employeeService.findAll(cursor, size, departmentId));
+    }
+
+    @GetMapping("/employees/{id}")
+    public DeferredResult<ResponseEntity<Employee>> getEmployeeById(@PathVariable Long id) {
+        return asyncReadExecutor.submit(() -> employeeService.findById(id));
+    }
+
+    @GetMapping("/departments")
+    public DeferredResult<ResponseEntity<List<DepartmentResponse>>> getAllDepartments() {
+        return asyncReadExecutor.submit(departmentService::findAllWithEmployees);
+    }
+
+    @GetMapping("/departments/summaries")
+    public DeferredResult<ResponseEntity<List<DepartmentSummaryResponse>>> getAllDepartmentSummaries() {
+        return asyncReadExecutor.submit(departmentService::findAllSummaries);
+    }
+
+    @GetMapping("/departments/{id}")
+    public DeferredResult<ResponseEntity<DepartmentResponse>> getDepartmentById(@PathVariable Long id) {
+        return asyncReadExecutor.submit(() -> departmentService.findByIdWithEmployees(id));
+    }
+}
@@ -0,0 +1,82 @@
+package com.foodtech.exercise.controller;
+
+import com.foodtech.exercise.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking reads on a bounded pool instead of the servlet container threads. When all threads are
+ * busy and the queue is full, requests are rejected with 503 straight away, and reads that exceed the
+ * timeout are answered with 503 as well.
+ * <p>
+ * The pool is deliberately small: a read needs a database connection, so running more reads at once than
+ * the connection pool can serve only moves the wait into Hikari. Waiting reads are parked in the queue
+ * without holding a servlet thread. A read that times out is cancelled as well: a queued read never starts,
+ * and a running read runs in a read-only transaction with the same timeout, which Hibernate applies as the
+ * JDBC query timeout, so the database cancels the statement and the thread and connection are released.
+ */
+@Component
+public class AsyncReadExecutor implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final long timeoutMillis;
+
+    public AsyncReadExecutor(PlatformTransactionManager transactionManager,
+                             @Value("${app.async.read.pool-size:32}") int poolSize,
+                             @Value("${app.async.read.queue-capacity:1000}") int queueCapacity,
+                             @Value("${app.async.read.timeout-ms:5000}") long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.setTimeout((int) Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis + 999)));
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("async-read-");
+        executor.initialize();
+    }
+
+    public <T> DeferredResult<ResponseEntity<T>> submit(Supplier<T> read) {
+        DeferredResult<ResponseEntity<T>> result = new DeferredResult<>(timeoutMillis);
+        Future<?> future;
+        try {
+            future = executor.submit(() -> {
+                if (result.isSetOrExpired()) {
+                    return;
+                }
+                try {
+                    result.setResult(ResponseEntity.ok(transactionTemplate.execute(status -> read.get())));
+                } catch (RuntimeException e) {
+                    result.setErrorResult(e);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            throw new ServiceUnavailableException("Too many concurrent reads, try again later");
+        }
+        result.onTimeout(() -> {
+            // Not interrupted: an interrupt can break the connection checkout, the query timeout ends running reads
+            future.cancel(false);
+            result.setErrorResult(new ServiceUnavailableException("Read did not complete within " + timeoutMillis + " ms"));
+        });
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,26 @@
+package com.foodtech.exercise.controller;
+
+import com.foodtech.exercise.dto.response.ChangeFeedResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+@RestController
+@RequestMapping("/api/v1/")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private final ChangeFeedLongPoll changeFeedLongPoll;
+
+    // get employee and department changes after a feed position, waiting for new ones when there are none
+    @GetMapping("/changes")
+    public DeferredResult<ResponseEntity<ChangeFeedResponse>> getChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int limit) {
+        return changeFeedLongPoll.poll(since, limit);
+    }
+}
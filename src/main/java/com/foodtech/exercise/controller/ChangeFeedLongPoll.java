@@ -0,0 +1,126 @@
+package com.foodtech.exercise.controller;
+
+import com.foodtech.exercise.dto.response.ChangeFeedResponse;
+import com.foodtech.exercise.service.OutboxCommittedEvent;
+import com.foodtech.exercise.service.OutboxService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Long polling on the change outbox. A poll with no new changes is parked without holding a servlet thread or
+ * a connection, and is read again only when the feed advances past its position; it is answered as soon as there
+ * are changes, or with an empty feed after the timeout.
+ */
+@Component
+public class ChangeFeedLongPoll implements DisposableBean {
+
+    private final OutboxService outboxService;
+    private final long timeoutMillis;
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+    private final AtomicLong commits = new AtomicLong();
+
+    public ChangeFeedLongPoll(OutboxService outboxService,
+                              @Value("${app.changes.long-poll.timeout-ms:30000}") long timeoutMillis,
+                              @Value("${app.changes.long-poll.pool-size:4}") int poolSize) {
+        this.outboxService = outboxService;
+        this.timeoutMillis = timeoutMillis;
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("change-feed-");
+        executor.initialize();
+    }
+
+    public DeferredResult<ResponseEntity<ChangeFeedResponse>> poll(long since, int limit) {
+        DeferredResult<ResponseEntity<ChangeFeedResponse>> result = new DeferredResult<>(timeoutMillis);
+        long seenCommits = commits.get();
+        ChangeFeedResponse changes = outboxService.findChanges(since, limit);
+        if (!changes.getEvents().isEmpty()) {
+            result.setResult(ResponseEntity.ok(changes));
+            return result;
+        }
+        Waiter waiter = new Waiter(since, limit, result);
+        result.onTimeout(() -> result.setResult(ResponseEntity.ok(changes)));
+        result.onCompletion(() -> waiters.remove(waiter));
+        waiters.add(waiter);
+        // A commit between the first read and the registration did not see this waiter
+        if (commits.get() != seenCommits) {
+            signal(waiter);
+        }
+        return result;
+    }
+
+    @EventListener
+    public void onCommitted(OutboxCommittedEvent event) {
+        commits.incrementAndGet();
+        for (Waiter waiter : waiters) {
+            if (event.getLastSequence() > waiter.since) {
+                signal(waiter);
+            }
+        }
+    }
+
+    /**
+     * Reads the feed of the waiter again on the executor. Signals that arrive while it is being read make it
+     * read once more, so that no commit is missed, but never run two reads for the same waiter at once.
+     */
+    private void signal(Waiter waiter) {
+        waiter.signalled.set(true);
+        if (waiter.running.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> drain(waiter));
+            } catch (TaskRejectedException e) {
+                // The waiter is answered by the next commit or its timeout
+                waiter.running.set(false);
+            }
+        }
+    }
+
+    private void drain(Waiter waiter) {
+        do {
+            try {
+                while (waiter.signalled.getAndSet(false) && !waiter.result.isSetOrExpired()) {
+                    ChangeFeedResponse changes = outboxService.findChanges(waiter.since, waiter.limit);
+                    if (!changes.getEvents().isEmpty()) {
+                        waiter.result.setResult(ResponseEntity.ok(changes));
+                    }
+                }
+            } catch (RuntimeException e) {
+                waiter.result.setErrorResult(e);
+            } finally {
+                waiter.running.set(false);
+            }
+        } while (waiter.signalled.get() && !waiter.result.isSetOrExpired() && waiter.running.compareAndSet(false, true));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static final class Waiter {
+
+        private final long since;
+        private final int limit;
+        private final DeferredResult<ResponseEntity<ChangeFeedResponse>> result;
+        private final AtomicBoolean signalled = new AtomicBoolean();
+        private final AtomicBoolean running = new AtomicBoolean();
+
+        private Waiter(long since, int limit, DeferredResult<ResponseEntity<ChangeFeedResponse>> result) {
+            this.since = since;
+            this.limit = limit;
+            this.result = result;
+        }
+    }
+}
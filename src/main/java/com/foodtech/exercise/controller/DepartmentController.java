@@ -1,13 +1,24 @@
 package com.foodtech.exercise.controller;
 
+import com.foodtech.exercise.configuration.BulkWrite;
 import com.foodtech.exercise.dto.request.DepartmentRequest;
-import com.foodtech.exercise.model.Department;
+import com.foodtech.exercise.dto.response.DepartmentDeleteResponse;
+import com.foodtech.exercise.dto.response.DepartmentResponse;
+import com.foodtech.exercise.dto.response.DepartmentSummaryResponse;
+import com.foodtech.exercise.dto.response.KeysetPage;
+import com.foodtech.exercise.dto.response.ResourceVersion;
+import com.foodtech.exercise.model.DepartmentEmployeeCount;
+import com.foodtech.exercise.service.DepartmentEmployeeCountService;
 import com.foodtech.exercise.service.DepartmentService;
+import com.foodtech.exercise.service.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -19,32 +30,86 @@ import java.util.Map;
 public class DepartmentController {
 
     private final DepartmentService departmentService;
+    private final DepartmentEmployeeCountService departmentEmployeeCountService;
+    private final NdjsonWriter ndjsonWriter;
 
     @GetMapping("/departments")
-    public ResponseEntity<List<Department>> getAllDepartments() {
+    public ResponseEntity<List<DepartmentResponse>> getAllDepartments(WebRequest request) {
+        ResourceVersion version = departmentService.findVersion();
+        if (request.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+            return null;
+        }
         return ResponseEntity.ok(departmentService.findAll());
     }
 
+    @GetMapping("/departments/with-employees")
+    public ResponseEntity<List<DepartmentResponse>> getAllDepartmentsWithEmployees(WebRequest request) {
+        ResourceVersion version = departmentService.findVersion();
+        if (request.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok(departmentService.findAllWithEmployees());
+    }
+
+    @GetMapping("/departments/summaries")
+    public ResponseEntity<List<DepartmentSummaryResponse>> getAllDepartmentSummaries(WebRequest request) {
+        ResourceVersion version = departmentService.findVersion();
+        if (request.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok(departmentService.findAllSummaries());
+    }
+
+    @GetMapping(value = "/departments/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportDepartments() {
+        return ResponseEntity.ok(ndjsonWriter.write(departmentService::streamAllSummaries));
+    }
+
+    @GetMapping("/departments/employee-counts")
+    public ResponseEntity<List<DepartmentEmployeeCount>> getAllDepartmentEmployeeCounts() {
+        return ResponseEntity.ok(departmentEmployeeCountService.findAll());
+    }
+
     @GetMapping("/departments/paginated")
-    public ResponseEntity<Page<Department>> getAllDepartmentsWithPagination(Pageable pageable) {
+    public ResponseEntity<Page<DepartmentResponse>> getAllDepartmentsWithPagination(Pageable pageable) {
         return ResponseEntity.ok(departmentService.findAll(pageable));
     }
 
+    @GetMapping("/departments/paginated/keyset")
+    public ResponseEntity<KeysetPage<DepartmentResponse>> getAllDepartmentsKeyset(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetCursor.DEFAULT_SIZE) int size) {
+        return ResponseEntity.ok(departmentService.findAll(cursor, size));
+    }
+
     @GetMapping("/departments/{id}")
-    public ResponseEntity<Department> getDepartmentById(@PathVariable Long id) {
+    public ResponseEntity<DepartmentResponse> getDepartmentById(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = departmentService.findVersion(id);
+        if (request.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+            return null;
+        }
         return ResponseEntity.ok(departmentService.findById(id));
     }
 
+    @GetMapping("/departments/{id}/with-employees")
+    public ResponseEntity<DepartmentResponse> getDepartmentByIdWithEmployees(@PathVariable Long id, WebRequest request) {
+        ResourceVersion version = departmentService.findVersion(id);
+        if (request.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok(departmentService.findByIdWithEmployees(id));
+    }
+
     @PostMapping("/departments")
-    public ResponseEntity<Department> createDepartment(@RequestBody DepartmentRequest department) {
+    public ResponseEntity<DepartmentResponse> createDepartment(@RequestBody DepartmentRequest department) {
         return ResponseEntity.ok(departmentService.save(department));
     }
 
 
     @PutMapping("/departments")
-    public ResponseEntity<Department> updateDepartment(@RequestBody DepartmentRequest departmentDetails) {
+    public ResponseEntity<DepartmentResponse> updateDepartment(@RequestBody DepartmentRequest departmentDetails) {
 
-        Department updatedDepartment = departmentService.updateDepartment(departmentDetails);
+        DepartmentResponse updatedDepartment = departmentService.updateDepartment(departmentDetails);
         return ResponseEntity.ok(updatedDepartment);
     }
 
@@ -56,4 +121,10 @@ public class DepartmentController {
         response.put("deleted", Boolean.TRUE);
         return ResponseEntity.ok(response);
     }
+
+    @BulkWrite
+    @PostMapping("/departments/bulk-delete")
+    public ResponseEntity<DepartmentDeleteResponse> deleteDepartments(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(departmentService.deleteAll(ids));
+    }
 }
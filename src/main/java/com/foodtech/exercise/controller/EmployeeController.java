@@ -1,17 +1,30 @@
 package com.foodtech.exercise.controller;
 
+import com.foodtech.exercise.configuration.BulkWrite;
+import com.foodtech.exercise.dto.request.EmployeeMoveRequest;
+import com.foodtech.exercise.dto.request.EmployeePatchRequest;
 import com.foodtech.exercise.dto.request.EmployeeRequest;
+import com.foodtech.exercise.dto.response.EmployeePatchResponse;
+import com.foodtech.exercise.dto.response.EmployeeResponse;
+import com.foodtech.exercise.dto.response.KeysetPage;
+import com.foodtech.exercise.dto.response.ResourceVersion;
 import com.foodtech.exercise.model.Employee;
 import com.foodtech.exercise.service.EmployeeService;
+import com.foodtech.exercise.service.EmployeeWriteBehindQueue;
+import com.foodtech.exercise.service.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/")
@@ -19,27 +32,89 @@ import java.util.Map;
 public class EmployeeController {
 
     private final EmployeeService employeeService;
+    private final EmployeeWriteBehindQueue employeeWriteBehindQueue;
+    private final NdjsonWriter ndjsonWriter;
 
     // get all employees
     @GetMapping("/employees")
-    public ResponseEntity<List<Employee>> getAllEmployees() {
+    public ResponseEntity<List<Employee>> getAllEmployees(WebRequest request) {
+        ResourceVersion version = employeeService.findVersion();
+        if (request.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+            return null;
+        }
         return ResponseEntity.ok(employeeService.findAll());
     }
 
+    @GetMapping(value = "/employees/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEmployees() {
+        return ResponseEntity.ok(ndjsonWriter.write(employeeService::streamAll));
+    }
+
     @GetMapping("/employees/paginated")
     public ResponseEntity<Page<Employee>> getAllEmployeesPaginated(Pageable pageable) {
         return ResponseEntity.ok(employeeService.findAll(pageable));
     }
 
+    @GetMapping("/employees/paginated/keyset")
+    public ResponseEntity<KeysetPage<Employee>> getAllEmployeesKeyset(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetCursor.DEFAULT_SIZE) int size,
+            @RequestParam(required = false) Long departmentId) {
+        return ResponseEntity.ok(employeeService.findAll(cursor, size, departmentId));
+    }
+
+    @GetMapping("/employees/search")
+    public ResponseEntity<List<EmployeeResponse>> searchEmployees(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "false") boolean fuzzy,
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + KeysetCursor.DEFAULT_SIZE) int size) {
+        return ResponseEntity.ok(employeeService.search(q, fuzzy, departmentId, page, size));
+    }
+
     @GetMapping("/employees/{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable Long id) {
-        return ResponseEntity.ok(employeeService.findById(id));
+    public ResponseEntity<Employee> getEmployeeById(@PathVariable Long id, WebRequest request) {
+        Employee employee = employeeService.findById(id);
+        ResourceVersion version = new ResourceVersion(employee.getUpdatedAt(), employee.getVersion());
+        if (request.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+            return null;
+        }
+        return ResponseEntity.ok(employee);
+    }
+
+    @GetMapping("/departments/{departmentId}/employees")
+    public ResponseEntity<KeysetPage<EmployeeResponse>> getDepartmentEmployees(
+            @PathVariable(value = "departmentId") Long departmentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetCursor.DEFAULT_SIZE) int size) {
+        return ResponseEntity.ok(employeeService.findByDepartmentId(departmentId, cursor, size));
+    }
+
+    @GetMapping(value = "/departments/{departmentId}/employees/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportDepartmentEmployees(@PathVariable(value = "departmentId") Long departmentId) {
+        employeeService.checkDepartmentExists(departmentId);
+        return ResponseEntity.ok(ndjsonWriter.write(consumer -> employeeService.streamByDepartmentId(departmentId, consumer)));
     }
 
     // create employee rest api
     @PostMapping("/departments/{departmentId}/employees")
-    public ResponseEntity<Employee> createEmployee(@PathVariable(value = "departmentId") Long departmentId, @RequestBody EmployeeRequest employee) {
-        return ResponseEntity.ok(employeeService.save(departmentId, employee));
+    public CompletableFuture<ResponseEntity<Employee>> createEmployee(@PathVariable(value = "departmentId") Long departmentId, @RequestBody EmployeeRequest employee) {
+        return employeeWriteBehindQueue.save(departmentId, employee).thenApply(ResponseEntity::ok);
+    }
+
+    @BulkWrite
+    @PostMapping("/departments/{departmentId}/employees/batch")
+    public ResponseEntity<List<Employee>> createEmployees(@PathVariable(value = "departmentId") Long departmentId, @RequestBody List<EmployeeRequest> employees) {
+        return ResponseEntity.ok(employeeService.saveAll(departmentId, employees));
+    }
+
+    @BulkWrite
+    @PostMapping("/departments/{departmentId}/employees/move")
+    public ResponseEntity<Map<String, Integer>> moveEmployees(@PathVariable(value = "departmentId") Long departmentId, @RequestBody EmployeeMoveRequest moveRequest) {
+        Map<String, Integer> response = new HashMap<>();
+        response.put("moved", employeeService.move(departmentId, moveRequest));
+        return ResponseEntity.ok(response);
     }
 
     // update employee rest api
@@ -50,6 +125,29 @@ public class EmployeeController {
         return ResponseEntity.ok(updatedEmployee);
     }
 
+    @BulkWrite
+    @PatchMapping("/employees")
+    public ResponseEntity<EmployeePatchResponse> patchEmployees(@RequestBody List<EmployeePatchRequest> patches) {
+        return ResponseEntity.ok(employeeService.patch(patches));
+    }
+
+    @PatchMapping("/employees/{id}")
+    public ResponseEntity<Map<String, Boolean>> patchEmployee(@PathVariable Long id, @RequestBody EmployeePatchRequest patch) {
+        patch.setId(id);
+        employeeService.patch(patch);
+        Map<String, Boolean> response = new HashMap<>();
+        response.put("updated", Boolean.TRUE);
+        return ResponseEntity.ok(response);
+    }
+
+    @BulkWrite
+    @PostMapping("/employees/sync")
+    public ResponseEntity<Map<String, Integer>> syncEmployees(@RequestBody List<EmployeeRequest> employees) {
+        Map<String, Integer> response = new HashMap<>();
+        response.put("synced", employeeService.sync(employees));
+        return ResponseEntity.ok(response);
+    }
+
     // delete employee rest api
     @DeleteMapping("/employees/{id}")
     public ResponseEntity<Map<String, Boolean>> deleteEmployee(@PathVariable Long id) {
@@ -0,0 +1,48 @@
+package com.foodtech.exercise.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes a stream of rows as newline-delimited JSON directly to the response, one line per row,
+ * without collecting the rows in memory first.
+ */
+@Component
+@RequiredArgsConstructor
+public class NdjsonWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param source pushes every row to the consumer it is given; it runs on the async request thread
+     *               and must open its own transaction
+     * @return the response body
+     */
+    public <T> StreamingResponseBody write(Consumer<Consumer<T>> source) {
+        return outputStream -> {
+            BufferedOutputStream buffer = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+            try {
+                source.accept(row -> {
+                    try {
+                        buffer.write(objectMapper.writeValueAsBytes(row));
+                        buffer.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            buffer.flush();
+        };
+    }
+}
@@ -7,4 +7,5 @@ public class DepartmentRequest {
 
     private long id;
     private String name;
+    private Long version;
 }
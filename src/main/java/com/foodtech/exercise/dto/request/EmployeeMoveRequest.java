@@ -0,0 +1,16 @@
+package com.foodtech.exercise.dto.request;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class EmployeeMoveRequest {
+
+    private long targetDepartmentId;
+
+    /**
+     * The employees to move; {@code null} or empty moves every employee of the source department.
+     */
+    private List<Long> employeeIds;
+}
@@ -0,0 +1,17 @@
+package com.foodtech.exercise.dto.request;
+
+import lombok.Data;
+
+/**
+ * A partial employee update; {@code null} fields are left unchanged. When {@code version} is set, the
+ * update only applies if the employee still has that version.
+ */
+@Data
+public class EmployeePatchRequest {
+
+    private long id;
+    private Long version;
+    private String firstName;
+    private String lastName;
+    private Long departmentId;
+}
@@ -9,4 +9,5 @@ public class EmployeeRequest {
     private String firstName;
     private String lastName;
     private long departmentId;
+    private Long version;
 }
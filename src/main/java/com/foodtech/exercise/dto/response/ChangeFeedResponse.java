@@ -0,0 +1,21 @@
+package com.foodtech.exercise.dto.response;
+
+import com.foodtech.exercise.model.ChangeEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedResponse {
+
+    private List<ChangeEvent> events;
+    /**
+     * The feed position of the last returned event, or the requested one when there are none; pass it as
+     * {@code since} to read the following changes.
+     */
+    private long lastSequence;
+}
@@ -0,0 +1,14 @@
+package com.foodtech.exercise.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentDeleteResponse {
+
+    private int deletedDepartments;
+    private int detachedEmployees;
+}
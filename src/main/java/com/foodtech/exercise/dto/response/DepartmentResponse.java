@@ -0,0 +1,37 @@
+package com.foodtech.exercise.dto.response;
+
+import com.foodtech.exercise.model.Department;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentResponse {
+
+    private long id;
+    private String name;
+    private long version;
+    private Date createdAt;
+    private Date updatedAt;
+    private List<EmployeeResponse> employees;
+
+    /**
+     * Maps a department and its employees. The employees collection must already be initialized,
+     * otherwise this triggers one extra query per department.
+     */
+    public static DepartmentResponse of(Department department) {
+        List<EmployeeResponse> employees = department.getEmployees().stream()
+                .map(EmployeeResponse::of)
+                .sorted(Comparator.comparingLong(EmployeeResponse::getId))
+                .collect(Collectors.toList());
+        return new DepartmentResponse(department.getId(), department.getName(), department.getVersion(),
+                department.getCreatedAt(), department.getUpdatedAt(), employees);
+    }
+}
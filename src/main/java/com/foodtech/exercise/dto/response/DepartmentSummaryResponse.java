@@ -0,0 +1,15 @@
+package com.foodtech.exercise.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentSummaryResponse {
+
+    private Long id;
+    private String name;
+    private Long employeeCount;
+}
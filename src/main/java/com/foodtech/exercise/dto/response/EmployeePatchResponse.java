@@ -0,0 +1,20 @@
+package com.foodtech.exercise.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeePatchResponse {
+
+    private int requested;
+    private int updated;
+    /**
+     * IDs of the versioned patches that were not applied because the version no longer matched.
+     */
+    private List<Long> conflicts;
+}
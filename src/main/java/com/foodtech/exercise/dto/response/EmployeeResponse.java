@@ -0,0 +1,26 @@
+package com.foodtech.exercise.dto.response;
+
+import com.foodtech.exercise.model.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeResponse {
+
+    private long id;
+    private String firstName;
+    private String lastName;
+    private long version;
+    private Date createdAt;
+    private Date updatedAt;
+
+    public static EmployeeResponse of(Employee employee) {
+        return new EmployeeResponse(employee.getId(), employee.getFirstName(), employee.getLastName(),
+                employee.getVersion(), employee.getCreatedAt(), employee.getUpdatedAt());
+    }
+}
@@ -0,0 +1,20 @@
+package com.foodtech.exercise.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    private List<T> content;
+    private int size;
+    /**
+     * Opaque cursor to pass as {@code cursor} to fetch the next page, or {@code null} on the last page.
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,47 @@
+package com.foodtech.exercise.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * A validator for conditional GETs, computed from {@code updatedAt} with an aggregate query instead of loading and
+ * serializing the body. The revision is the row count for collections, so that deletions change the ETag too, and
+ * the {@code @Version} for a single employee.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResourceVersion {
+
+    private Date lastModified;
+    private Long revision;
+
+    /**
+     * Combines the validators of the parts of a response: the latest modification wins and the revisions add up.
+     */
+    public ResourceVersion combine(ResourceVersion other) {
+        Date latest = lastModified == null || (other.lastModified != null && other.lastModified.after(lastModified))
+                ? other.lastModified
+                : lastModified;
+        return new ResourceVersion(latest, revision + other.revision);
+    }
+
+    /**
+     * The weak ETag of the resource. It is weak because the same version is served as JSON, Smile or CBOR and
+     * possibly gzipped.
+     */
+    public String getETag() {
+        return "W/\"" + Long.toHexString(getLastModifiedMillis()) + "-" + Long.toHexString(revision) + "\"";
+    }
+
+    /**
+     * The {@code Last-Modified} time in milliseconds, or -1 for an empty collection. Deletions do not move it, so
+     * it only serves clients that do not send {@code If-None-Match}, which is checked first.
+     */
+    public long getLastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.getTime();
+    }
+}
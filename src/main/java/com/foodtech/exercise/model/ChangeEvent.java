@@ -0,0 +1,62 @@
+package com.foodtech.exercise.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * An entry of the change outbox: an employee or department was written. Events are appended in the
+ * transaction of the write and carry no state; consumers re-read the aggregate they name. The feed position is
+ * assigned by the sequencer once the event has committed.
+ */
+@Entity
+@Table(name = "change_event")
+@Data
+@NoArgsConstructor
+public class ChangeEvent {
+
+    public enum AggregateType {
+        EMPLOYEE, DEPARTMENT
+    }
+
+    public enum Operation {
+        CREATED, UPDATED, DELETED,
+        /**
+         * Employees of the department were changed by a set-based write, or joined or left it; re-read the
+         * department's employees. Sent for a deleted department as well, whose employees now have none.
+         */
+        EMPLOYEES_CHANGED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_event_seq")
+    @SequenceGenerator(name = "change_event_seq", sequenceName = "change_event_seq", allocationSize = 50)
+    private long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private AggregateType aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private long aggregateId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false, length = 32)
+    private Operation operation;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "occurred_at", nullable = false)
+    private Date occurredAt;
+
+    @Column(name = "position", insertable = false, updatable = false)
+    private Long position;
+
+    public ChangeEvent(AggregateType aggregateType, long aggregateId, Operation operation, Date occurredAt) {
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.operation = operation;
+        this.occurredAt = occurredAt;
+    }
+}
@@ -0,0 +1,39 @@
+package com.foodtech.exercise.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import javax.persistence.*;
+
+/**
+ * The number of employees of a department, maintained incrementally by the employee and department writes
+ * so that head counts can be read without counting the employee table.
+ */
+@Entity
+@Table(name = "department_employee_count")
+@Data
+@NoArgsConstructor
+public class DepartmentEmployeeCount {
+
+    @Id
+    @Column(name = "department_id")
+    private long departmentId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "department_id", foreignKey = @ForeignKey(name = "fk_department_employee_count_department"))
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Department department;
+
+    @Column(name = "employee_count", nullable = false)
+    private long employeeCount;
+
+    public DepartmentEmployeeCount(Department department) {
+        this.department = department;
+    }
+}
@@ -17,7 +17,8 @@ import java.util.Objects;
 public class Employee extends AuditModel {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "employee_seq")
+    @SequenceGenerator(name = "employee_seq", sequenceName = "employee_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "first_name", nullable = false)
@@ -26,8 +27,12 @@ public class Employee extends AuditModel {
     @Column(name = "last_name", nullable = false)
     private String lastName;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "department_id")
+    @JoinColumn(name = "department_id", foreignKey = @ForeignKey(name = "fk_employee_department"))
     @JsonIgnore
     private Department department;
 
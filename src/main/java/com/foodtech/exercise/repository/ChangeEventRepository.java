@@ -0,0 +1,58 @@
+package com.foodtech.exercise.repository;
+
+import com.foodtech.exercise.model.ChangeEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.Temporal;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.TemporalType;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface ChangeEventRepository extends JpaRepository<ChangeEvent, Long>, ChangeEventRepositoryCustom {
+
+    List<ChangeEvent> findByPositionGreaterThanOrderByPositionAsc(long afterPosition, Pageable limit);
+
+    @Query("SELECT COALESCE(MAX(c.position), 0) FROM ChangeEvent c")
+    long findLastPosition();
+
+    /**
+     * @return the oldest retained feed position, {@code null} if no event has one
+     */
+    @Query("SELECT MIN(c.position) FROM ChangeEvent c")
+    Long findFirstPosition();
+
+    /**
+     * Takes the given advisory lock until the end of the transaction, without waiting.
+     *
+     * @return whether the lock was taken
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+
+    /**
+     * Gives the next feed positions to up to {@code limit} committed events without one, in ID order.
+     * Callers must hold the sequencer lock, so that positions are committed in increasing order.
+     */
+    @Modifying
+    @Query(value = "UPDATE change_event c SET position = p.position FROM (" +
+            "SELECT u.id, nextval('change_feed_position_seq') AS position FROM (" +
+            "SELECT id FROM change_event WHERE position IS NULL ORDER BY id LIMIT :limit) u) p " +
+            "WHERE c.id = p.id", nativeQuery = true)
+    int assignPositions(@Param("limit") int limit);
+
+    /**
+     * Deletes the events up to the last position of an event that occurred before the given time. The retained
+     * feed stays contiguous from its first position, so a consumer behind that position knows it missed changes.
+     * Events without a position yet are kept.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM change_event WHERE position <= (" +
+            "SELECT MAX(position) FROM change_event WHERE occurred_at < :before)", nativeQuery = true)
+    int deletePositionedBefore(@Param("before") @Temporal(TemporalType.TIMESTAMP) Date before);
+}
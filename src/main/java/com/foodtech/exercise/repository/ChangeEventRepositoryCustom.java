@@ -0,0 +1,22 @@
+package com.foodtech.exercise.repository;
+
+import com.foodtech.exercise.model.ChangeEvent.AggregateType;
+import com.foodtech.exercise.model.ChangeEvent.Operation;
+
+import java.util.Collection;
+import java.util.Date;
+
+public interface ChangeEventRepositoryCustom {
+
+    /**
+     * Inserts the same change of many aggregates with batched JDBC inserts, bypassing the persistence context.
+     * IDs come from the pooled {@code change_event_seq} generator of the entity; the position is left for the
+     * sequencer.
+     *
+     * @param aggregateType the type of the changed aggregates
+     * @param aggregateIds  the IDs of the changed aggregates
+     * @param operation     what happened to the aggregates
+     * @param occurredAt    when it happened
+     */
+    void insertAll(AggregateType aggregateType, Collection<Long> aggregateIds, Operation operation, Date occurredAt);
+}
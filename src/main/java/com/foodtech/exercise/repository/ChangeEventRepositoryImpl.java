@@ -0,0 +1,48 @@
+package com.foodtech.exercise.repository;
+
+import com.foodtech.exercise.model.ChangeEvent;
+import com.foodtech.exercise.model.ChangeEvent.AggregateType;
+import com.foodtech.exercise.model.ChangeEvent.Operation;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
+
+@RequiredArgsConstructor
+public class ChangeEventRepositoryImpl implements ChangeEventRepositoryCustom {
+
+    private static final String INSERT_SQL = "INSERT INTO change_event (id, aggregate_type, aggregate_id, operation, occurred_at) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public void insertAll(AggregateType aggregateType, Collection<Long> aggregateIds, Operation operation, Date occurredAt) {
+        // The pooled optimizer of the entity hands out IDs from the blocks it reserves, one nextval per block
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator idGenerator = session.getFactory().getMetamodel().entityPersister(ChangeEvent.class).getIdentifierGenerator();
+        Timestamp timestamp = new Timestamp(occurredAt.getTime());
+        jdbcTemplate.batchUpdate(INSERT_SQL, aggregateIds, batchSize, (ps, aggregateId) -> {
+            ps.setLong(1, ((Number) idGenerator.generate(session, null)).longValue());
+            ps.setString(2, aggregateType.name());
+            ps.setLong(3, aggregateId);
+            ps.setString(4, operation.name());
+            ps.setTimestamp(5, timestamp);
+        });
+    }
+}
@@ -0,0 +1,36 @@
+package com.foodtech.exercise.repository;
+
+import com.foodtech.exercise.model.DepartmentEmployeeCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface DepartmentEmployeeCountRepository extends JpaRepository<DepartmentEmployeeCount, Long> {
+
+    @Modifying
+    @Query("UPDATE DepartmentEmployeeCount c SET c.employeeCount = c.employeeCount + :delta WHERE c.departmentId = :departmentId")
+    int increment(@Param("departmentId") Long departmentId, @Param("delta") long delta);
+
+    @Modifying
+    @Query("DELETE FROM DepartmentEmployeeCount c WHERE c.departmentId IN :departmentIds")
+    int deleteByDepartmentIds(@Param("departmentIds") Collection<Long> departmentIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO department_employee_count (department_id, employee_count) " +
+            "SELECT d.id, 0 FROM department d " +
+            "WHERE NOT EXISTS (SELECT 1 FROM department_employee_count c WHERE c.department_id = d.id)",
+            nativeQuery = true)
+    int insertMissing();
+
+    @Modifying
+    @Query(value = "UPDATE department_employee_count c " +
+            "SET employee_count = (SELECT COUNT(*) FROM employee e WHERE e.department_id = c.department_id) " +
+            "WHERE employee_count <> (SELECT COUNT(*) FROM employee e WHERE e.department_id = c.department_id)",
+            nativeQuery = true)
+    int recount();
+}
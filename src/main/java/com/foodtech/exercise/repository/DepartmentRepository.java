@@ -1,9 +1,60 @@
 package com.foodtech.exercise.repository;
 
+import com.foodtech.exercise.dto.response.DepartmentSummaryResponse;
+import com.foodtech.exercise.dto.response.ResourceVersion;
 import com.foodtech.exercise.model.Department;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
+
+    @Query("SELECT DISTINCT d FROM Department d LEFT JOIN FETCH d.employees ORDER BY d.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<Department> findAllWithEmployees();
+
+    @Query("SELECT DISTINCT d FROM Department d LEFT JOIN FETCH d.employees WHERE d.id IN :ids ORDER BY d.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+    List<Department> findAllWithEmployeesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.foodtech.exercise.dto.response.ResourceVersion(MAX(d.updatedAt), COUNT(d)) FROM Department d")
+    ResourceVersion findVersion();
+
+    @Query(value = "SELECT d.id FROM Department d", countQuery = "SELECT COUNT(d) FROM Department d")
+    Page<Long> findIds(Pageable pageable);
+
+    @Query("SELECT d.id FROM Department d WHERE d.id > :afterId ORDER BY d.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable limit);
+
+    @Query("SELECT d.id FROM Department d WHERE d.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = "employees")
+    Optional<Department> findWithEmployeesById(Long id);
+
+    @Query("SELECT new com.foodtech.exercise.dto.response.DepartmentSummaryResponse(d.id, d.name, COUNT(e.id)) " +
+            "FROM Department d LEFT JOIN d.employees e GROUP BY d.id, d.name ORDER BY d.id")
+    List<DepartmentSummaryResponse> findAllSummaries();
+
+    @Query("SELECT new com.foodtech.exercise.dto.response.DepartmentSummaryResponse(d.id, d.name, COUNT(e.id)) " +
+            "FROM Department d LEFT JOIN d.employees e GROUP BY d.id, d.name ORDER BY d.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<DepartmentSummaryResponse> streamAllSummaries();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Department d WHERE d.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,26 +1,140 @@
 package com.foodtech.exercise.repository;
 
+import com.foodtech.exercise.dto.response.EmployeeResponse;
+import com.foodtech.exercise.dto.response.ResourceVersion;
+import com.foodtech.exercise.model.Department;
 import com.foodtech.exercise.model.Employee;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.jpa.repository.Temporal;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import javax.persistence.TemporalType;
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
 
     Page<Employee> findByDepartmentId(Long departmentId, Pageable pageable);
     List<Employee> findByDepartmentId(Long departmentId);
 
     Optional<Employee> findByIdAndDepartmentId(Long id, Long departmentId);
 
+    List<Employee> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable limit);
+
+    List<Employee> findByDepartmentIdAndIdGreaterThanOrderByIdAsc(Long departmentId, Long afterId, Pageable limit);
+
+    /**
+     * Reads a page of a department's employees as projections, seeking past the given ID. The selected
+     * columns are all in the covering {@code idx_employee_department_listing} index.
+     */
+    @Query("SELECT new com.foodtech.exercise.dto.response.EmployeeResponse(e.id, e.firstName, e.lastName, e.version, e.createdAt, e.updatedAt) " +
+            "FROM Employee e WHERE e.department.id = :departmentId AND e.id > :afterId ORDER BY e.id")
+    List<EmployeeResponse> findResponsesByDepartmentId(@Param("departmentId") Long departmentId, @Param("afterId") Long afterId,
+                                                       Pageable limit);
+
+    @Query("SELECT new com.foodtech.exercise.dto.response.EmployeeResponse(e.id, e.firstName, e.lastName, e.version, e.createdAt, e.updatedAt) " +
+            "FROM Employee e WHERE e.department.id = :departmentId ORDER BY e.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<EmployeeResponse> streamByDepartmentId(@Param("departmentId") Long departmentId);
+
+    @Query("SELECT new com.foodtech.exercise.dto.response.ResourceVersion(MAX(e.updatedAt), COUNT(e)) FROM Employee e")
+    ResourceVersion findVersion();
+
+    @Query("SELECT new com.foodtech.exercise.dto.response.ResourceVersion(MAX(e.updatedAt), COUNT(e)) " +
+            "FROM Employee e WHERE e.department.id = :departmentId")
+    ResourceVersion findVersionByDepartmentId(@Param("departmentId") Long departmentId);
+
+    @Query("SELECT new com.foodtech.exercise.dto.response.EmployeeResponse(e.id, e.firstName, e.lastName, e.version, e.createdAt, e.updatedAt) " +
+            "FROM Employee e ORDER BY e.id")
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<EmployeeResponse> streamAll();
+
+    /**
+     * Finds employees whose first or last name starts with the given lower-case LIKE pattern, ordered by the
+     * name that matched, then the other name, in the "C" collation. Each name is searched in its own branch
+     * that reads its {@code COLLATE "C"} index in order and stops after {@code offset + limit} rows.
+     */
+    @Query(value = "SELECT m.id, m.created_at, m.updated_at, m.first_name, m.last_name, m.version, m.department_id FROM (" +
+            "(SELECT e.*, lower(e.last_name) COLLATE \"C\" AS match_name, lower(e.first_name) COLLATE \"C\" AS other_name " +
+            "FROM employee e WHERE lower(e.last_name) COLLATE \"C\" LIKE :prefix ESCAPE '\\' " +
+            "ORDER BY lower(e.last_name) COLLATE \"C\", lower(e.first_name) COLLATE \"C\", e.id LIMIT :offset + :limit) " +
+            "UNION ALL " +
+            "(SELECT e.*, lower(e.first_name) COLLATE \"C\", lower(e.last_name) COLLATE \"C\" " +
+            "FROM employee e WHERE lower(e.first_name) COLLATE \"C\" LIKE :prefix ESCAPE '\\' " +
+            "AND lower(e.last_name) COLLATE \"C\" NOT LIKE :prefix ESCAPE '\\' " +
+            "ORDER BY lower(e.first_name) COLLATE \"C\", lower(e.last_name) COLLATE \"C\", e.id LIMIT :offset + :limit)" +
+            ") m ORDER BY m.match_name, m.other_name, m.id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Employee> searchByNamePrefix(@Param("prefix") String prefix, @Param("offset") long offset, @Param("limit") int limit);
+
+    @Query(value = "SELECT m.id, m.created_at, m.updated_at, m.first_name, m.last_name, m.version, m.department_id FROM (" +
+            "(SELECT e.*, lower(e.last_name) COLLATE \"C\" AS match_name, lower(e.first_name) COLLATE \"C\" AS other_name " +
+            "FROM employee e WHERE e.department_id = :departmentId AND lower(e.last_name) COLLATE \"C\" LIKE :prefix ESCAPE '\\' " +
+            "ORDER BY lower(e.last_name) COLLATE \"C\", lower(e.first_name) COLLATE \"C\", e.id LIMIT :offset + :limit) " +
+            "UNION ALL " +
+            "(SELECT e.*, lower(e.first_name) COLLATE \"C\", lower(e.last_name) COLLATE \"C\" " +
+            "FROM employee e WHERE e.department_id = :departmentId AND lower(e.first_name) COLLATE \"C\" LIKE :prefix ESCAPE '\\' " +
+            "AND lower(e.last_name) COLLATE \"C\" NOT LIKE :prefix ESCAPE '\\' " +
+            "ORDER BY lower(e.first_name) COLLATE \"C\", lower(e.last_name) COLLATE \"C\", e.id LIMIT :offset + :limit)" +
+            ") m ORDER BY m.match_name, m.other_name, m.id LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Employee> searchByNamePrefixInDepartment(@Param("prefix") String prefix, @Param("departmentId") Long departmentId,
+                                                  @Param("offset") long offset, @Param("limit") int limit);
+
+    /**
+     * Finds employees whose full name is similar to the given lower-case term, most similar first.
+     * The trigram distance ({@code <->}) is read in order from the pg_trgm GiST index on the full name.
+     */
+    @Query(value = "SELECT * FROM employee e " +
+            "WHERE (lower(e.first_name) || ' ' || lower(e.last_name)) % :term " +
+            "ORDER BY (lower(e.first_name) || ' ' || lower(e.last_name)) <-> :term, e.id", nativeQuery = true)
+    List<Employee> searchBySimilarName(@Param("term") String term, Pageable pageable);
+
+    @Query(value = "SELECT * FROM employee e WHERE e.department_id = :departmentId " +
+            "AND (lower(e.first_name) || ' ' || lower(e.last_name)) % :term " +
+            "ORDER BY (lower(e.first_name) || ' ' || lower(e.last_name)) <-> :term, e.id", nativeQuery = true)
+    List<Employee> searchBySimilarNameInDepartment(@Param("term") String term, @Param("departmentId") Long departmentId,
+                                                   Pageable pageable);
+
     @Modifying
     @Query("UPDATE Employee e SET e.department = null WHERE e.department.id = :departmentId")
-    void updateEmployeesWithDepartmentIdToNull(@Param("departmentId") Long departmentId);
+    int updateEmployeesWithDepartmentIdToNull(@Param("departmentId") Long departmentId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Employee e SET e.department = null WHERE e.department.id IN :departmentIds")
+    int updateEmployeesWithDepartmentIdsToNull(@Param("departmentIds") Collection<Long> departmentIds);
+
+    /**
+     * Moves every employee of a department to the target department in one statement. The persistence context
+     * is flushed before and cleared after, so no loaded employee keeps its old department.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.department = :target, e.version = e.version + 1, e.updatedAt = :now " +
+            "WHERE e.department.id = :fromId")
+    int moveEmployees(@Param("fromId") Long fromId, @Param("target") Department target,
+                      @Param("now") @Temporal(TemporalType.TIMESTAMP) Date now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Employee e SET e.department = :target, e.version = e.version + 1, e.updatedAt = :now " +
+            "WHERE e.department.id = :fromId AND e.id IN :ids")
+    int moveEmployeesByIdIn(@Param("fromId") Long fromId, @Param("ids") Collection<Long> ids,
+                            @Param("target") Department target, @Param("now") @Temporal(TemporalType.TIMESTAMP) Date now);
+
+    /**
+     * Retrieves the current department of the given employees and locks their rows until the end of the
+     * transaction, in ID order to avoid deadlocks between concurrent callers. Employees that do not exist are
+     * left out. Rows are {@code [id, departmentId or null]}.
+     */
+    @Query(value = "SELECT e.id, e.department_id FROM employee e WHERE e.id IN (:ids) ORDER BY e.id FOR UPDATE",
+            nativeQuery = true)
+    List<Object[]> findDepartmentIdsForUpdate(@Param("ids") Collection<Long> ids);
 }
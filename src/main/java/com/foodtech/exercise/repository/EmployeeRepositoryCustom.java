@@ -0,0 +1,38 @@
+package com.foodtech.exercise.repository;
+
+import com.foodtech.exercise.dto.request.EmployeeRequest;
+import com.foodtech.exercise.model.Employee;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EmployeeRepositoryCustom {
+
+    /**
+     * Persists new employees, flushing and clearing the persistence context every JDBC batch
+     * so that memory stays flat regardless of the number of employees.
+     *
+     * @param employees the new employees
+     * @return the persisted, detached employees with their assigned IDs
+     */
+    List<Employee> persistInBatches(List<Employee> employees);
+
+    /**
+     * Updates the given fields of the employees in a single {@code UPDATE ... WHERE id IN (...)} statement,
+     * incrementing their version. {@code null} fields are left unchanged.
+     *
+     * @param ids             the IDs of the employees to update
+     * @param expectedVersion if not {@code null}, only employees with this version are updated
+     * @return the number of updated employees
+     */
+    int patch(Collection<Long> ids, Long expectedVersion, String firstName, String lastName, Long departmentId);
+
+    /**
+     * Inserts or updates employees with a batched PostgreSQL {@code INSERT ... ON CONFLICT (id) DO UPDATE}.
+     * Requests with ID 0 are inserted with a new ID from the pooled {@code employee_seq} generator of the entity,
+     * which is set on the request; any other ID must belong to an existing employee.
+     *
+     * @param employees the employees to insert or update
+     */
+    void upsert(List<EmployeeRequest> employees);
+}
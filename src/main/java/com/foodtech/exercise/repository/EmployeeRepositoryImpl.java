@@ -0,0 +1,108 @@
+package com.foodtech.exercise.repository;
+
+import com.foodtech.exercise.dto.request.EmployeeRequest;
+import com.foodtech.exercise.model.Department;
+import com.foodtech.exercise.model.Employee;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    private static final String UPSERT_SQL = "INSERT INTO employee (id, first_name, last_name, department_id, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, now(), now(), 0) "
+            + "ON CONFLICT (id) DO UPDATE SET first_name = EXCLUDED.first_name, last_name = EXCLUDED.last_name, "
+            + "department_id = EXCLUDED.department_id, updated_at = EXCLUDED.updated_at, version = employee.version + 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    @Transactional
+    public List<Employee> persistInBatches(List<Employee> employees) {
+        for (int i = 0; i < employees.size(); i++) {
+            entityManager.persist(employees.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return employees;
+    }
+
+    @Override
+    @Transactional
+    public int patch(Collection<Long> ids, Long expectedVersion, String firstName, String lastName, Long departmentId) {
+        StringBuilder jpql = new StringBuilder("UPDATE Employee e SET e.version = e.version + 1, e.updatedAt = :now");
+        if (firstName != null) {
+            jpql.append(", e.firstName = :firstName");
+        }
+        if (lastName != null) {
+            jpql.append(", e.lastName = :lastName");
+        }
+        if (departmentId != null) {
+            jpql.append(", e.department = :department");
+        }
+        jpql.append(" WHERE e.id IN :ids");
+        if (expectedVersion != null) {
+            jpql.append(" AND e.version = :version");
+        }
+
+        Query query = entityManager.createQuery(jpql.toString())
+                .setParameter("now", new Date(), TemporalType.TIMESTAMP)
+                .setParameter("ids", ids);
+        if (firstName != null) {
+            query.setParameter("firstName", firstName);
+        }
+        if (lastName != null) {
+            query.setParameter("lastName", lastName);
+        }
+        if (departmentId != null) {
+            query.setParameter("department", entityManager.getReference(Department.class, departmentId));
+        }
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+        return query.executeUpdate();
+    }
+
+    @Override
+    @Transactional
+    public void upsert(List<EmployeeRequest> employees) {
+        entityManager.flush();
+        // The pooled optimizer of the entity hands out IDs from the blocks it reserves, one nextval per block
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator idGenerator = session.getFactory().getMetamodel().entityPersister(Employee.class).getIdentifierGenerator();
+        for (EmployeeRequest employee : employees) {
+            if (employee.getId() == 0) {
+                employee.setId(((Number) idGenerator.generate(session, null)).longValue());
+            }
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, employees, batchSize, (ps, employee) -> {
+            ps.setLong(1, employee.getId());
+            ps.setString(2, employee.getFirstName());
+            ps.setString(3, employee.getLastName());
+            ps.setLong(4, employee.getDepartmentId());
+        });
+        entityManager.clear();
+    }
+}
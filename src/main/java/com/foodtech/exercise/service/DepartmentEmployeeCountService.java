@@ -0,0 +1,83 @@
+/**
+ * The DepartmentEmployeeCountService class maintains the per-department employee counters.
+ */
+package com.foodtech.exercise.service;
+
+import com.foodtech.exercise.model.Department;
+import com.foodtech.exercise.model.DepartmentEmployeeCount;
+import com.foodtech.exercise.repository.DepartmentEmployeeCountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DepartmentEmployeeCountService {
+
+    private final DepartmentEmployeeCountRepository departmentEmployeeCountRepository;
+
+    /**
+     * Retrieves the employee count of every department from the counter table.
+     *
+     * @return the employee counts
+     */
+    public List<DepartmentEmployeeCount> findAll() {
+        return departmentEmployeeCountRepository.findAll();
+    }
+
+    /**
+     * Creates the counter of a new department.
+     *
+     * @param department the new department
+     */
+    @Transactional
+    public void initialize(Department department) {
+        departmentEmployeeCountRepository.save(new DepartmentEmployeeCount(department));
+    }
+
+    /**
+     * Atomically adds to the counter of a department.
+     *
+     * @param departmentId the ID of the department, or {@code null} for employees without department
+     * @param delta        the number of employees added, negative for removed employees
+     */
+    @Transactional
+    public void increment(Long departmentId, long delta) {
+        if (departmentId != null && delta != 0) {
+            departmentEmployeeCountRepository.increment(departmentId, delta);
+        }
+    }
+
+    /**
+     * Removes the counters of deleted departments.
+     *
+     * @param departmentIds the IDs of the deleted departments
+     */
+    @Transactional
+    public void remove(Collection<Long> departmentIds) {
+        departmentEmployeeCountRepository.deleteByDepartmentIds(departmentIds);
+    }
+
+    /**
+     * Recounts the employees of every department and corrects the counters that drifted, e.g. after
+     * concurrent moves or direct database changes. Departments without a counter get one.
+     *
+     * @return the number of created or corrected counters
+     */
+    @Transactional
+    @Scheduled(cron = "${app.employee-count.reconcile-cron:0 0 * * * *}")
+    public int reconcile() {
+        int corrected = departmentEmployeeCountRepository.insertMissing() + departmentEmployeeCountRepository.recount();
+        if (corrected > 0) {
+            log.info("Reconciled {} department employee counters", corrected);
+        }
+        return corrected;
+    }
+}
@@ -4,43 +4,171 @@
 package com.foodtech.exercise.service;
 
 import com.foodtech.exercise.dto.request.DepartmentRequest;
+import com.foodtech.exercise.dto.response.DepartmentDeleteResponse;
+import com.foodtech.exercise.dto.response.DepartmentResponse;
+import com.foodtech.exercise.dto.response.DepartmentSummaryResponse;
+import com.foodtech.exercise.dto.response.KeysetPage;
+import com.foodtech.exercise.dto.response.ResourceVersion;
+import com.foodtech.exercise.exception.ConflictException;
 import com.foodtech.exercise.exception.ResourceNotFoundException;
+import com.foodtech.exercise.model.ChangeEvent.AggregateType;
+import com.foodtech.exercise.model.ChangeEvent.Operation;
 import com.foodtech.exercise.model.Department;
 import com.foodtech.exercise.repository.DepartmentRepository;
 import com.foodtech.exercise.repository.EmployeeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class DepartmentService {
 
+    private static final int DELETE_CHUNK_SIZE = 1000;
+
     private final DepartmentRepository departmentRepository;
 
     private final EmployeeRepository employeeRepository;
 
+    private final DepartmentEmployeeCountService departmentEmployeeCountService;
+
+    private final OptimisticLockRetry optimisticLockRetry;
+
+    private final OutboxService outboxService;
+
     /**
-     * Retrieves all departments.
+     * Retrieves all departments with their employees, using a single fetch-join query.
      *
      * @return the list of all departments
      */
-    public List<Department> findAll() {
-        return departmentRepository.findAll();
+    public List<DepartmentResponse> findAll() {
+        return findAllWithEmployees();
+    }
+
+    /**
+     * Retrieves the version of the department collection for conditional GETs. It covers the employees as well,
+     * since they are part of the department responses and summaries.
+     *
+     * @return the latest modification time and the number of departments and employees
+     */
+    public ResourceVersion findVersion() {
+        return departmentRepository.findVersion().combine(employeeRepository.findVersion());
+    }
+
+    /**
+     * Retrieves the version of a department and its employees for conditional GETs.
+     *
+     * @param id the ID of the department
+     * @return the latest modification time of the department and its employees and the number of employees
+     * @throws ResourceNotFoundException if the department does not exist
+     */
+    public ResourceVersion findVersion(Long id) {
+        Department department = getDepartment(id);
+        return new ResourceVersion(department.getUpdatedAt(), 1L).combine(employeeRepository.findVersionByDepartmentId(id));
     }
 
     /**
-     * Retrieves a page of departments.
+     * Retrieves a page of departments with their employees. The page is selected by ID first, so that the
+     * limit applies to departments rather than joined rows, and the departments of the page are then fetched
+     * together with their employees in one query.
      *
      * @param pageable the pageable information
      * @return a page of departments
      */
-    public Page<Department> findAll(Pageable pageable) {
-        return departmentRepository.findAll(pageable);
+    public Page<DepartmentResponse> findAll(Pageable pageable) {
+        Page<Long> idPage = departmentRepository.findIds(pageable);
+        if (idPage.getContent().isEmpty()) {
+            return new PageImpl<>(Collections.emptyList(), pageable, idPage.getTotalElements());
+        }
+        Map<Long, Department> departments = new HashMap<>();
+        departmentRepository.findAllWithEmployeesByIdIn(idPage.getContent())
+                .forEach(department -> departments.put(department.getId(), department));
+        // Keep the order of the ID page, which follows the requested sort
+        List<DepartmentResponse> content = idPage.getContent().stream()
+                .map(departments::get)
+                .filter(Objects::nonNull)
+                .map(DepartmentResponse::of)
+                .collect(Collectors.toList());
+        return new PageImpl<>(content, pageable, idPage.getTotalElements());
+    }
+
+    /**
+     * Retrieves a page of departments with their employees ordered by ID, seeking past the given cursor
+     * instead of using an offset. No count query is issued.
+     *
+     * @param cursor the cursor returned with the previous page, or {@code null} for the first page
+     * @param size   the page size
+     * @return a page of departments with the cursor of the next page
+     */
+    public KeysetPage<DepartmentResponse> findAll(String cursor, int size) {
+        List<Long> ids = departmentRepository.findIdsAfter(KeysetCursor.decode(cursor), KeysetCursor.limit(size));
+        KeysetPage<Long> idPage = KeysetCursor.page(ids, size, Long::longValue);
+        List<DepartmentResponse> content = idPage.getContent().isEmpty()
+                ? Collections.emptyList()
+                : departmentRepository.findAllWithEmployeesByIdIn(idPage.getContent()).stream()
+                        .map(DepartmentResponse::of)
+                        .collect(Collectors.toList());
+        return new KeysetPage<>(content, content.size(), idPage.getNextCursor());
+    }
+
+    /**
+     * Retrieves all departments together with their employees using a single fetch-join query.
+     *
+     * @return the list of all departments with their employees
+     */
+    public List<DepartmentResponse> findAllWithEmployees() {
+        return departmentRepository.findAllWithEmployees().stream()
+                .map(DepartmentResponse::of)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Retrieves a department together with its employees.
+     *
+     * @param id the ID of the department to retrieve
+     * @return the department with its employees
+     * @throws ResourceNotFoundException if the department does not exist
+     */
+    public DepartmentResponse findByIdWithEmployees(Long id) {
+        return departmentRepository.findWithEmployeesById(id)
+                .map(DepartmentResponse::of)
+                .orElseThrow(() -> new ResourceNotFoundException("Department does not exist with ID: " + id));
+    }
+
+    /**
+     * Retrieves the employee count of every department without loading the employees.
+     *
+     * @return the list of department summaries
+     */
+    public List<DepartmentSummaryResponse> findAllSummaries() {
+        return departmentRepository.findAllSummaries();
+    }
+
+    /**
+     * Streams the summary of every department through a server-side cursor.
+     *
+     * @param consumer the consumer receiving every department summary in ID order
+     */
+    public void streamAllSummaries(Consumer<DepartmentSummaryResponse> consumer) {
+        try (Stream<DepartmentSummaryResponse> summaries = departmentRepository.streamAllSummaries()) {
+            summaries.forEach(consumer);
+        }
     }
 
     /**
@@ -49,10 +177,14 @@ public class DepartmentService {
      * @param departmentRequest the department request containing the department details
      * @return the saved department
      */
-    public Department save(DepartmentRequest departmentRequest) {
+    @Transactional
+    public DepartmentResponse save(DepartmentRequest departmentRequest) {
         Department department = new Department();
         department.setName(departmentRequest.getName());
-        return departmentRepository.save(department);
+        Department saved = departmentRepository.save(department);
+        departmentEmployeeCountService.initialize(saved);
+        outboxService.append(AggregateType.DEPARTMENT, saved.getId(), Operation.CREATED);
+        return DepartmentResponse.of(saved);
     }
 
     /**
@@ -62,9 +194,8 @@ public class DepartmentService {
      * @return the department with the specified ID
      * @throws ResourceNotFoundException if the department does not exist
      */
-    public Department findById(Long id) {
-        return departmentRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Department does not exist with ID: " + id));
+    public DepartmentResponse findById(Long id) {
+        return DepartmentResponse.of(getDepartment(id));
     }
 
     /**
@@ -75,24 +206,77 @@ public class DepartmentService {
      */
     @Transactional
     public void delete(Long id) {
-        if (departmentRepository.existsById(id)) {
-            employeeRepository.updateEmployeesWithDepartmentIdToNull(id);
-            departmentRepository.deleteById(id);
-        } else {
+        int detached = employeeRepository.updateEmployeesWithDepartmentIdToNull(id);
+        departmentEmployeeCountService.remove(Collections.singleton(id));
+        if (departmentRepository.deleteByIds(Collections.singleton(id)) == 0) {
             throw new ResourceNotFoundException("Department does not exist with ID: " + id);
         }
+        if (detached > 0) {
+            outboxService.append(AggregateType.DEPARTMENT, id, Operation.EMPLOYEES_CHANGED);
+        }
+        outboxService.append(AggregateType.DEPARTMENT, id, Operation.DELETED);
     }
 
     /**
-     * Updates the details of a department.
+     * Deletes many departments in one transaction using set-based statements only. Their employees are
+     * detached from the departments, and no entity is loaded.
+     *
+     * @param ids the IDs of the departments to delete; unknown IDs are ignored
+     * @return the number of deleted departments and detached employees
+     */
+    @Transactional
+    public DepartmentDeleteResponse deleteAll(List<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        int detachedEmployees = 0;
+        int deletedDepartments = 0;
+        for (int from = 0; from < distinctIds.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, distinctIds.size()));
+            // Only departments that exist are deleted and announced
+            List<Long> existingIds = departmentRepository.findExistingIds(chunk);
+            if (existingIds.isEmpty()) {
+                continue;
+            }
+            int detached = employeeRepository.updateEmployeesWithDepartmentIdsToNull(existingIds);
+            detachedEmployees += detached;
+            departmentEmployeeCountService.remove(existingIds);
+            int deleted = departmentRepository.deleteByIds(existingIds);
+            if (detached > 0) {
+                outboxService.append(AggregateType.DEPARTMENT, existingIds, Operation.EMPLOYEES_CHANGED);
+            }
+            if (deleted > 0) {
+                outboxService.append(AggregateType.DEPARTMENT, existingIds, Operation.DELETED);
+            }
+            deletedDepartments += deleted;
+        }
+        return new DepartmentDeleteResponse(deletedDepartments, detachedEmployees);
+    }
+
+    /**
+     * Updates the details of a department. When the request carries a version, the update only succeeds while
+     * the department is still at that version. Without one, an update that loses against a concurrent update is
+     * retried on the fresh state instead of overwriting it.
      *
      * @param departmentDetails the department request containing the updated details
      * @return the updated department
      * @throws ResourceNotFoundException if the department does not exist
+     * @throws ConflictException         if the department is not at the requested version or keeps being modified
      */
-    public Department updateDepartment(DepartmentRequest departmentDetails) {
-        Department department = findById(departmentDetails.getId());
-        department.setName(departmentDetails.getName());
-        return departmentRepository.save(department);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DepartmentResponse updateDepartment(DepartmentRequest departmentDetails) {
+        return optimisticLockRetry.execute("department.update", () -> {
+            Department department = getDepartment(departmentDetails.getId());
+            if (departmentDetails.getVersion() != null && departmentDetails.getVersion() != department.getVersion()) {
+                throw new ConflictException("Department with ID: " + department.getId() + " was modified concurrently");
+            }
+            department.setName(departmentDetails.getName());
+            Department saved = departmentRepository.saveAndFlush(department);
+            outboxService.append(AggregateType.DEPARTMENT, saved.getId(), Operation.UPDATED);
+            return DepartmentResponse.of(saved);
+        });
+    }
+
+    private Department getDepartment(Long id) {
+        return departmentRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Department does not exist with ID: " + id));
     }
 }
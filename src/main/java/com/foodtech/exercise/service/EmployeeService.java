@@ -3,24 +3,62 @@
  */
 package com.foodtech.exercise.service;
 
+import com.foodtech.exercise.dto.request.EmployeeMoveRequest;
+import com.foodtech.exercise.dto.request.EmployeePatchRequest;
 import com.foodtech.exercise.dto.request.EmployeeRequest;
+import com.foodtech.exercise.dto.response.EmployeePatchResponse;
+import com.foodtech.exercise.dto.response.EmployeeResponse;
+import com.foodtech.exercise.dto.response.KeysetPage;
+import com.foodtech.exercise.dto.response.ResourceVersion;
+import com.foodtech.exercise.exception.BadRequestException;
+import com.foodtech.exercise.exception.ConflictException;
 import com.foodtech.exercise.exception.ResourceNotFoundException;
+import com.foodtech.exercise.model.ChangeEvent.AggregateType;
+import com.foodtech.exercise.model.ChangeEvent.Operation;
+import com.foodtech.exercise.model.Department;
 import com.foodtech.exercise.model.Employee;
 import com.foodtech.exercise.repository.DepartmentRepository;
 import com.foodtech.exercise.repository.EmployeeRepository;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class EmployeeService {
 
+    private static final String DEPARTMENT_FOREIGN_KEY = "fk_employee_department";
+    private static final int UPDATE_CHUNK_SIZE = 1000;
+
     private final EmployeeRepository employeeRepository;
     private final DepartmentRepository departmentRepository;
+    private final DepartmentEmployeeCountService departmentEmployeeCountService;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final OutboxService outboxService;
 
     /**
      * Retrieves all employees.
@@ -31,6 +69,15 @@ public class EmployeeService {
         return employeeRepository.findAll();
     }
 
+    /**
+     * Retrieves the version of the employee collection for conditional GETs without loading any employee.
+     *
+     * @return the latest modification time and the number of employees
+     */
+    public ResourceVersion findVersion() {
+        return employeeRepository.findVersion();
+    }
+
     /**
      * Retrieves a page of employees.
      *
@@ -41,6 +88,114 @@ public class EmployeeService {
         return employeeRepository.findAll(pageable);
     }
 
+    /**
+     * Streams all employees through a server-side cursor. The rows are read as projections and never
+     * enter the persistence context, so memory stays constant.
+     *
+     * @param consumer the consumer receiving every employee in ID order
+     */
+    public void streamAll(Consumer<EmployeeResponse> consumer) {
+        try (Stream<EmployeeResponse> employees = employeeRepository.streamAll()) {
+            employees.forEach(consumer);
+        }
+    }
+
+    /**
+     * Retrieves a page of employees ordered by ID, seeking past the given cursor instead of using an offset.
+     * No count query is issued.
+     *
+     * @param cursor       the cursor returned with the previous page, or {@code null} for the first page
+     * @param size         the page size
+     * @param departmentId the optional ID of the department to restrict the employees to
+     * @return a page of employees with the cursor of the next page
+     */
+    public KeysetPage<Employee> findAll(String cursor, int size, Long departmentId) {
+        long afterId = KeysetCursor.decode(cursor);
+        List<Employee> rows = departmentId == null
+                ? employeeRepository.findByIdGreaterThanOrderByIdAsc(afterId, KeysetCursor.limit(size))
+                : employeeRepository.findByDepartmentIdAndIdGreaterThanOrderByIdAsc(departmentId, afterId, KeysetCursor.limit(size));
+        return KeysetCursor.page(rows, size, Employee::getId);
+    }
+
+    /**
+     * Retrieves a page of a department's employees ordered by ID, seeking past the given cursor. The employees
+     * are read as projections and the department is never loaded.
+     *
+     * @param departmentId the ID of the department
+     * @param cursor       the cursor returned with the previous page, or {@code null} for the first page
+     * @param size         the page size
+     * @return a page of employees with the cursor of the next page
+     * @throws ResourceNotFoundException if the department does not exist
+     */
+    public KeysetPage<EmployeeResponse> findByDepartmentId(Long departmentId, String cursor, int size) {
+        long afterId = KeysetCursor.decode(cursor);
+        List<EmployeeResponse> rows = employeeRepository.findResponsesByDepartmentId(departmentId, afterId, KeysetCursor.limit(size));
+        if (rows.isEmpty() && afterId == 0L) {
+            checkDepartmentExists(departmentId);
+        }
+        return KeysetCursor.page(rows, size, EmployeeResponse::getId);
+    }
+
+    /**
+     * Streams all employees of a department through a server-side cursor, as projections in ID order.
+     *
+     * @param departmentId the ID of the department
+     * @param consumer     the consumer receiving every employee
+     */
+    public void streamByDepartmentId(Long departmentId, Consumer<EmployeeResponse> consumer) {
+        try (Stream<EmployeeResponse> employees = employeeRepository.streamByDepartmentId(departmentId)) {
+            employees.forEach(consumer);
+        }
+    }
+
+    /**
+     * Checks that a department exists without loading it.
+     *
+     * @param departmentId the ID of the department
+     * @throws ResourceNotFoundException if the department does not exist
+     */
+    public void checkDepartmentExists(Long departmentId) {
+        if (!departmentRepository.existsById(departmentId)) {
+            throw new ResourceNotFoundException("Department does not exist with ID: " + departmentId);
+        }
+    }
+
+    /**
+     * Searches employees by name. A prefix search matches employees whose first or last name starts with
+     * the query, ordered by the matching name; a fuzzy search matches full names with trigram similarity, most
+     * similar first. Both are case-insensitive and read the name indexes in order.
+     *
+     * @param query        the search text
+     * @param fuzzy        whether to match by similarity instead of by prefix
+     * @param departmentId the optional ID of the department to restrict the employees to
+     * @param page         the zero-based page number
+     * @param size         the page size
+     * @return a page of matching employees
+     * @throws BadRequestException if the query is blank or the page is out of range
+     */
+    public List<EmployeeResponse> search(String query, boolean fuzzy, Long departmentId, int page, int size) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+        if (page < 0 || size < 1 || size > KeysetCursor.MAX_SIZE) {
+            throw new BadRequestException("Page must not be negative and size must be between 1 and " + KeysetCursor.MAX_SIZE);
+        }
+        String term = query.trim().toLowerCase(Locale.ROOT);
+        Pageable pageable = PageRequest.of(page, size);
+        List<Employee> employees;
+        if (fuzzy) {
+            employees = departmentId == null
+                    ? employeeRepository.searchBySimilarName(term, pageable)
+                    : employeeRepository.searchBySimilarNameInDepartment(term, departmentId, pageable);
+        } else {
+            String prefix = escapeLike(term) + "%";
+            employees = departmentId == null
+                    ? employeeRepository.searchByNamePrefix(prefix, pageable.getOffset(), size)
+                    : employeeRepository.searchByNamePrefixInDepartment(prefix, departmentId, pageable.getOffset(), size);
+        }
+        return employees.stream().map(EmployeeResponse::of).collect(Collectors.toList());
+    }
+
     /**
      * Saves a new employee with the specified department ID.
      *
@@ -49,14 +204,43 @@ public class EmployeeService {
      * @return the saved employee
      * @throws ResourceNotFoundException if the department does not exist with the specified ID
      */
+    @Transactional
     public Employee save(Long depId, EmployeeRequest employeeRequest) {
-        return departmentRepository.findById(depId).map(department -> {
+        Employee employee = new Employee();
+        employee.setFirstName(employeeRequest.getFirstName());
+        employee.setLastName(employeeRequest.getLastName());
+        employee.setDepartment(departmentRepository.getById(depId));
+        Employee saved = saveAndFlush(employee, depId);
+        departmentEmployeeCountService.increment(depId, 1);
+        outboxService.append(AggregateType.EMPLOYEE, saved.getId(), Operation.CREATED);
+        return saved;
+    }
+
+    /**
+     * Saves many new employees in the specified department. The department is resolved once and the
+     * employees are inserted with JDBC batching.
+     *
+     * @param depId            the ID of the department the employees belong to
+     * @param employeeRequests the employee requests containing the employee details
+     * @return the saved employees
+     * @throws ResourceNotFoundException if the department does not exist with the specified ID
+     */
+    @Transactional
+    public List<Employee> saveAll(Long depId, List<EmployeeRequest> employeeRequests) {
+        Department department = departmentRepository.findById(depId)
+                .orElseThrow(() -> new ResourceNotFoundException("Department does not exist with ID: " + depId));
+        List<Employee> employees = employeeRequests.stream().map(employeeRequest -> {
             Employee employee = new Employee();
             employee.setFirstName(employeeRequest.getFirstName());
             employee.setLastName(employeeRequest.getLastName());
             employee.setDepartment(department);
-            return employeeRepository.save(employee);
-        }).orElseThrow(() -> new ResourceNotFoundException("Department does not exist with ID: " + depId));
+            return employee;
+        }).collect(Collectors.toList());
+        List<Employee> saved = employeeRepository.persistInBatches(employees);
+        departmentEmployeeCountService.increment(depId, saved.size());
+        outboxService.append(AggregateType.EMPLOYEE,
+                saved.stream().map(Employee::getId).collect(Collectors.toList()), Operation.CREATED);
+        return saved;
     }
 
     /**
@@ -65,8 +249,14 @@ public class EmployeeService {
      * @param id the ID of the employee to delete
      * @throws ResourceNotFoundException if the employee does not exist
      */
+    @Transactional
     public void delete(Long id) {
-        employeeRepository.delete(findById(id));
+        Employee employee = findById(id);
+        employeeRepository.delete(employee);
+        if (employee.getDepartment() != null) {
+            departmentEmployeeCountService.increment(employee.getDepartment().getId(), -1);
+        }
+        outboxService.append(AggregateType.EMPLOYEE, id, Operation.DELETED);
     }
 
     /**
@@ -82,20 +272,293 @@ public class EmployeeService {
     }
 
     /**
-     * Updates the details of an employee.
+     * Updates the details of an employee. When the request carries a version, the update only succeeds while
+     * the employee is still at that version. Without one, an update that loses against a concurrent update is
+     * retried on the fresh state instead of overwriting it.
      *
      * @param employeeDetails the employee request containing the updated details
      * @return the updated employee
      * @throws ResourceNotFoundException if the employee or the department does not exist
+     * @throws ConflictException         if the employee is not at the requested version or keeps being modified
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Employee updateEmployee(EmployeeRequest employeeDetails) {
+        return optimisticLockRetry.execute("employee.update", () -> applyUpdate(employeeDetails));
+    }
+
+    private Employee applyUpdate(EmployeeRequest employeeDetails) {
         Employee employee = findById(employeeDetails.getId());
+        if (employeeDetails.getVersion() != null && employeeDetails.getVersion() != employee.getVersion()) {
+            throw new ConflictException("Employee with ID: " + employee.getId() + " was modified concurrently");
+        }
+        Long previousDepartmentId = employee.getDepartment() == null ? null : employee.getDepartment().getId();
         employee.setFirstName(employeeDetails.getFirstName());
         employee.setLastName(employeeDetails.getLastName());
-        employee.setDepartment(departmentRepository.findById(employeeDetails.getDepartmentId())
-                .orElseThrow(() ->
-                        new ResourceNotFoundException("Department does not exist with ID: " + employeeDetails.getDepartmentId())));
-        return employeeRepository.save(employee);
+        employee.setDepartment(departmentRepository.getById(employeeDetails.getDepartmentId()));
+        Employee saved = saveAndFlush(employee, employeeDetails.getDepartmentId());
+        if (previousDepartmentId == null || previousDepartmentId != employeeDetails.getDepartmentId()) {
+            departmentEmployeeCountService.increment(previousDepartmentId, -1);
+            departmentEmployeeCountService.increment(employeeDetails.getDepartmentId(), 1);
+        }
+        outboxService.append(AggregateType.EMPLOYEE, saved.getId(), Operation.UPDATED);
+        return saved;
+    }
+
+    /**
+     * Applies partial updates without loading the employees. Unversioned patches that change the same fields
+     * to the same values are combined into one {@code UPDATE ... WHERE id IN (...)} statement; versioned
+     * patches are applied one by one and skipped when the version no longer matches.
+     *
+     * @param patches the partial updates
+     * @return the number of updated employees and the IDs of the conflicting versioned patches
+     * @throws BadRequestException       if a patch does not change any field
+     * @throws ResourceNotFoundException if a department does not exist
+     */
+    @Transactional
+    public EmployeePatchResponse patch(List<EmployeePatchRequest> patches) {
+        int updated = 0;
+        List<Long> conflicts = new ArrayList<>();
+        Map<List<Object>, EmployeePatchRequest> changes = new LinkedHashMap<>();
+        Map<List<Object>, List<Long>> idsByChange = new LinkedHashMap<>();
+        for (EmployeePatchRequest patch : patches) {
+            if (patch.getFirstName() == null && patch.getLastName() == null && patch.getDepartmentId() == null) {
+                throw new BadRequestException("Nothing to update for employee with ID: " + patch.getId());
+            }
+            if (patch.getVersion() != null) {
+                int count = patchEmployees(Collections.singletonList(patch.getId()), patch);
+                if (count == 0) {
+                    conflicts.add(patch.getId());
+                }
+                updated += count;
+            } else {
+                List<Object> change = Arrays.asList(patch.getFirstName(), patch.getLastName(), patch.getDepartmentId());
+                changes.putIfAbsent(change, patch);
+                idsByChange.computeIfAbsent(change, key -> new ArrayList<>()).add(patch.getId());
+            }
+        }
+        for (Map.Entry<List<Object>, List<Long>> entry : idsByChange.entrySet()) {
+            List<Long> ids = entry.getValue();
+            for (int from = 0; from < ids.size(); from += UPDATE_CHUNK_SIZE) {
+                updated += patchEmployees(ids.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, ids.size())), changes.get(entry.getKey()));
+            }
+        }
+        return new EmployeePatchResponse(patches.size(), updated, conflicts);
+    }
+
+    /**
+     * Applies a partial update to a single employee.
+     *
+     * @param patch the partial update
+     * @throws ResourceNotFoundException if the employee or the department does not exist
+     * @throws ConflictException         if the version of the employee no longer matches
+     */
+    @Transactional
+    public void patch(EmployeePatchRequest patch) {
+        if (patch(Collections.singletonList(patch)).getUpdated() == 0) {
+            if (!employeeRepository.existsById(patch.getId())) {
+                throw new ResourceNotFoundException("Employee does not exist with ID: " + patch.getId());
+            }
+            throw new ConflictException("Employee with ID: " + patch.getId() + " was modified concurrently");
+        }
+    }
+
+    /**
+     * Inserts or updates many employees at once, as sent by the HR feed, with a batched upsert statement.
+     * The department employee counters are adjusted by the departments the employees joined and left; the
+     * existing employees are locked before the upsert so that their previous department cannot change meanwhile.
+     *
+     * @param employeeRequests the employees; ID 0 creates a new employee and is replaced by the assigned ID
+     * @return the number of synchronized employees
+     * @throws ResourceNotFoundException if an employee with a non-zero ID or a department does not exist
+     */
+    @Transactional
+    public int sync(List<EmployeeRequest> employeeRequests) {
+        Set<Long> departmentIds = employeeRequests.stream()
+                .map(EmployeeRequest::getDepartmentId)
+                .collect(Collectors.toSet());
+        if (!departmentIds.isEmpty()) {
+            Set<Long> missing = new HashSet<>(departmentIds);
+            missing.removeAll(departmentRepository.findExistingIds(departmentIds));
+            if (!missing.isEmpty()) {
+                throw new ResourceNotFoundException("Department does not exist with ID: " + missing.iterator().next());
+            }
+        }
+        Map<Long, Long> currentDepartmentIds = lockExistingEmployees(employeeRequests);
+        List<EmployeeRequest> created = new ArrayList<>();
+        for (EmployeeRequest employeeRequest : employeeRequests) {
+            if (employeeRequest.getId() == 0) {
+                created.add(employeeRequest);
+            } else if (!currentDepartmentIds.containsKey(employeeRequest.getId())) {
+                // IDs are only assigned by employee_seq, never taken from the feed
+                throw new ResourceNotFoundException("Employee does not exist with ID: " + employeeRequest.getId());
+            }
+        }
+        Map<Long, Long> deltas = departmentDeltas(employeeRequests, currentDepartmentIds);
+        employeeRepository.upsert(employeeRequests);
+        deltas.forEach(departmentEmployeeCountService::increment);
+        outboxService.append(AggregateType.EMPLOYEE, currentDepartmentIds.keySet(), Operation.UPDATED);
+        outboxService.append(AggregateType.EMPLOYEE, created.stream()
+                .map(EmployeeRequest::getId)
+                .collect(Collectors.toList()), Operation.CREATED);
+        // The departments employees are synchronized into, and the ones moved employees left
+        Set<Long> changedDepartmentIds = new LinkedHashSet<>(departmentIds);
+        changedDepartmentIds.addAll(deltas.keySet());
+        outboxService.append(AggregateType.DEPARTMENT, changedDepartmentIds, Operation.EMPLOYEES_CHANGED);
+        return employeeRequests.size();
+    }
+
+    /**
+     * Locks the existing employees among the requested IDs and retrieves their current department.
+     */
+    private Map<Long, Long> lockExistingEmployees(List<EmployeeRequest> employeeRequests) {
+        List<Long> ids = employeeRequests.stream()
+                .map(EmployeeRequest::getId)
+                .filter(id -> id != 0)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Long> currentDepartmentIds = new LinkedHashMap<>();
+        for (int from = 0; from < ids.size(); from += UPDATE_CHUNK_SIZE) {
+            for (Object[] row : employeeRepository.findDepartmentIdsForUpdate(ids.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, ids.size())))) {
+                currentDepartmentIds.put(((Number) row[0]).longValue(), row[1] == null ? null : ((Number) row[1]).longValue());
+            }
+        }
+        return currentDepartmentIds;
+    }
+
+    /**
+     * Computes how the employee count of every department changes when the given employees are upserted, in
+     * request order: a new employee joins its department, an existing one may leave its previous department.
+     */
+    private Map<Long, Long> departmentDeltas(List<EmployeeRequest> employeeRequests, Map<Long, Long> currentDepartmentIds) {
+        Map<Long, Long> departmentIdsSoFar = new HashMap<>(currentDepartmentIds);
+        Map<Long, Long> deltas = new HashMap<>();
+        for (EmployeeRequest employeeRequest : employeeRequests) {
+            Long departmentId = employeeRequest.getDepartmentId();
+            if (employeeRequest.getId() != 0) {
+                Long previousDepartmentId = departmentIdsSoFar.put(employeeRequest.getId(), departmentId);
+                if (Objects.equals(previousDepartmentId, departmentId)) {
+                    continue;
+                }
+                if (previousDepartmentId != null) {
+                    deltas.merge(previousDepartmentId, -1L, Long::sum);
+                }
+            }
+            deltas.merge(departmentId, 1L, Long::sum);
+        }
+        return deltas;
+    }
+
+    /**
+     * Moves employees from one department to another with set-based updates, without loading them. Moving
+     * all employees of the department is a single statement; a given subset is moved in chunks of
+     * {@value #UPDATE_CHUNK_SIZE} IDs. IDs that are not in the source department are ignored.
+     *
+     * @param fromDepartmentId the ID of the department the employees are in
+     * @param moveRequest      the target department and the optional employee IDs
+     * @return the number of moved employees
+     * @throws BadRequestException       if the source and target department are the same
+     * @throws ResourceNotFoundException if either department does not exist
+     */
+    @Transactional
+    public int move(Long fromDepartmentId, EmployeeMoveRequest moveRequest) {
+        long toDepartmentId = moveRequest.getTargetDepartmentId();
+        if (fromDepartmentId == toDepartmentId) {
+            throw new BadRequestException("Employees are already in department with ID: " + toDepartmentId);
+        }
+        List<Long> existing = departmentRepository.findExistingIds(Arrays.asList(fromDepartmentId, toDepartmentId));
+        for (Long departmentId : Arrays.asList(fromDepartmentId, toDepartmentId)) {
+            if (!existing.contains(departmentId)) {
+                throw new ResourceNotFoundException("Department does not exist with ID: " + departmentId);
+            }
+        }
+
+        Department target = departmentRepository.getById(toDepartmentId);
+        Date now = new Date();
+        int moved = 0;
+        List<Long> ids = moveRequest.getEmployeeIds();
+        if (ids == null || ids.isEmpty()) {
+            moved = employeeRepository.moveEmployees(fromDepartmentId, target, now);
+        } else {
+            List<Long> distinctIds = new ArrayList<>(new HashSet<>(ids));
+            for (int from = 0; from < distinctIds.size(); from += UPDATE_CHUNK_SIZE) {
+                List<Long> chunk = distinctIds.subList(from, Math.min(from + UPDATE_CHUNK_SIZE, distinctIds.size()));
+                moved += employeeRepository.moveEmployeesByIdIn(fromDepartmentId, chunk, target, now);
+            }
+        }
+        if (moved > 0) {
+            departmentEmployeeCountService.increment(fromDepartmentId, -moved);
+            departmentEmployeeCountService.increment(toDepartmentId, moved);
+            outboxService.append(AggregateType.DEPARTMENT, Arrays.asList(fromDepartmentId, toDepartmentId),
+                    Operation.EMPLOYEES_CHANGED);
+        }
+        return moved;
+    }
+
+    private int patchEmployees(List<Long> ids, EmployeePatchRequest change) {
+        // Lock the employees first, so that the matched rows and the departments they leave are known
+        Map<Long, Long> currentDepartmentIds = new LinkedHashMap<>();
+        for (Object[] row : employeeRepository.findDepartmentIdsForUpdate(ids)) {
+            currentDepartmentIds.put(((Number) row[0]).longValue(), row[1] == null ? null : ((Number) row[1]).longValue());
+        }
+        int updated;
+        try {
+            updated = employeeRepository.patch(ids, change.getVersion(), change.getFirstName(), change.getLastName(),
+                    change.getDepartmentId());
+        } catch (DataIntegrityViolationException e) {
+            if (isDepartmentForeignKeyViolation(e)) {
+                throw new ResourceNotFoundException("Department does not exist with ID: " + change.getDepartmentId());
+            }
+            throw e;
+        }
+        if (updated > 0) {
+            if (change.getDepartmentId() != null) {
+                Map<Long, Long> moves = new LinkedHashMap<>();
+                for (Long previousDepartmentId : currentDepartmentIds.values()) {
+                    if (!change.getDepartmentId().equals(previousDepartmentId)) {
+                        moves.merge(previousDepartmentId, 1L, Long::sum);
+                    }
+                }
+                long moved = 0;
+                for (Map.Entry<Long, Long> move : moves.entrySet()) {
+                    departmentEmployeeCountService.increment(move.getKey(), -move.getValue());
+                    moved += move.getValue();
+                }
+                if (moved > 0) {
+                    departmentEmployeeCountService.increment(change.getDepartmentId(), moved);
+                    Set<Long> departmentIds = new LinkedHashSet<>(moves.keySet());
+                    departmentIds.remove(null);
+                    departmentIds.add(change.getDepartmentId());
+                    outboxService.append(AggregateType.DEPARTMENT, departmentIds, Operation.EMPLOYEES_CHANGED);
+                }
+            }
+            // Only the employees that exist were updated; a versioned patch that updated its row has one ID
+            outboxService.append(AggregateType.EMPLOYEE, currentDepartmentIds.keySet(), Operation.UPDATED);
+        }
+        return updated;
+    }
+
+    /**
+     * Writes the employee immediately. The department is attached as an uninitialized reference, so its
+     * existence is checked by the foreign key constraint instead of a separate SELECT.
+     */
+    private Employee saveAndFlush(Employee employee, long depId) {
+        try {
+            return employeeRepository.saveAndFlush(employee);
+        } catch (DataIntegrityViolationException e) {
+            if (isDepartmentForeignKeyViolation(e)) {
+                throw new ResourceNotFoundException("Department does not exist with ID: " + depId);
+            }
+            throw e;
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean isDepartmentForeignKeyViolation(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException
+                && DEPARTMENT_FOREIGN_KEY.equalsIgnoreCase(((ConstraintViolationException) e.getCause()).getConstraintName());
     }
 
 }
@@ -0,0 +1,200 @@
+/**
+ * The EmployeeWriteBehindQueue class coalesces employee creations into micro-batches.
+ */
+package com.foodtech.exercise.service;
+
+import com.foodtech.exercise.dto.request.EmployeeRequest;
+import com.foodtech.exercise.exception.ResourceNotFoundException;
+import com.foodtech.exercise.exception.ServiceUnavailableException;
+import com.foodtech.exercise.model.Employee;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+public class EmployeeWriteBehindQueue implements DisposableBean {
+
+    private final EmployeeService employeeService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final long offerTimeoutMillis;
+    private final BlockingQueue<PendingCreate> queue;
+    private final Thread flusher = new Thread(this::run, "employee-write-behind");
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    public EmployeeWriteBehindQueue(EmployeeService employeeService,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.employee.write-behind.enabled:false}") boolean enabled,
+                                    @Value("${app.employee.write-behind.capacity:10000}") int capacity,
+                                    @Value("${app.employee.write-behind.batch-size:500}") int batchSize,
+                                    @Value("${app.employee.write-behind.max-delay-ms:10}") long maxDelayMillis,
+                                    @Value("${app.employee.write-behind.offer-timeout-ms:100}") long offerTimeoutMillis) {
+        this.employeeService = employeeService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        Gauge.builder("employee.write_behind.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            running = true;
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    /**
+     * Saves a new employee. In write-behind mode the employee is queued and inserted together with other
+     * queued employees in one transaction and JDBC batch, after at most the configured delay; otherwise it is
+     * saved right away with {@link EmployeeService#save(Long, EmployeeRequest)}.
+     *
+     * @param depId           the ID of the department the employee belongs to
+     * @param employeeRequest the employee request containing the employee details
+     * @return a future completed with the saved employee, including its assigned ID
+     * @throws ServiceUnavailableException if the queue stays full for longer than the offer timeout, or the
+     *                                     queue has been shut down
+     */
+    public CompletableFuture<Employee> save(Long depId, EmployeeRequest employeeRequest) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(employeeService.save(depId, employeeRequest));
+        }
+        if (stopped) {
+            throw new ServiceUnavailableException("Employee creations are shutting down, try again later");
+        }
+        PendingCreate pending = new PendingCreate(depId, employeeRequest);
+        try {
+            if (!queue.offer(pending, offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ServiceUnavailableException("Too many pending employee creations, try again later");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while queueing the employee creation");
+        }
+        // Queued while shutting down: unless the flusher already took it, it would never be saved
+        if (stopped && queue.remove(pending)) {
+            throw new ServiceUnavailableException("Employee creations are shutting down, try again later");
+        }
+        return pending.result;
+    }
+
+    private void run() {
+        List<PendingCreate> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits for the first creation, then collects more until the batch is full or the maximum delay after
+     * the first one has passed.
+     */
+    private void collect(List<PendingCreate> batch) throws InterruptedException {
+        PendingCreate first = running ? queue.poll(maxDelayNanos, TimeUnit.NANOSECONDS) : queue.poll();
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0 || !running) {
+                return;
+            }
+            PendingCreate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    /**
+     * Saves the batch with one {@link EmployeeService#saveAll(Long, List)} per department, so a missing
+     * department only fails the creations that refer to it. Any other failure of a department's batch is
+     * retried one creation at a time, so that only the creations that fail on their own are failed.
+     */
+    private void flush(List<PendingCreate> batch) {
+        Map<Long, List<PendingCreate>> byDepartment = new LinkedHashMap<>();
+        for (PendingCreate pending : batch) {
+            byDepartment.computeIfAbsent(pending.depId, depId -> new ArrayList<>()).add(pending);
+        }
+        byDepartment.forEach((depId, creates) -> {
+            List<EmployeeRequest> requests = new ArrayList<>(creates.size());
+            creates.forEach(pending -> requests.add(pending.request));
+            try {
+                List<Employee> saved = employeeService.saveAll(depId, requests);
+                for (int i = 0; i < creates.size(); i++) {
+                    creates.get(i).result.complete(saved.get(i));
+                }
+            } catch (ResourceNotFoundException e) {
+                creates.forEach(pending -> pending.result.completeExceptionally(e));
+            } catch (RuntimeException e) {
+                log.debug("Write-behind batch of {} employees for department {} failed, saving them one by one",
+                        creates.size(), depId, e);
+                creates.forEach(pending -> flushOne(depId, pending));
+            }
+        });
+    }
+
+    private void flushOne(Long depId, PendingCreate pending) {
+        try {
+            pending.result.complete(employeeService.saveAll(depId, Collections.singletonList(pending.request)).get(0));
+        } catch (RuntimeException e) {
+            log.debug("Write-behind creation of an employee for department {} failed", depId, e);
+            pending.result.completeExceptionally(e);
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        stopped = true;
+        if (running) {
+            // The flusher notices within the maximum delay and drains the queue before it exits
+            running = false;
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    private static final class PendingCreate {
+
+        private final Long depId;
+        private final EmployeeRequest request;
+        private final CompletableFuture<Employee> result = new CompletableFuture<>();
+
+        private PendingCreate(Long depId, EmployeeRequest request) {
+            this.depId = depId;
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * The KeysetCursor class encodes and decodes the opaque cursors used by keyset (seek) pagination.
+ */
+package com.foodtech.exercise.service;
+
+import com.foodtech.exercise.dto.response.KeysetPage;
+import com.foodtech.exercise.exception.BadRequestException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+public final class KeysetCursor {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 1000;
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Encodes the last seen ID into an opaque cursor.
+     *
+     * @param afterId the last ID of the current page
+     * @return the cursor for the next page
+     */
+    public static String encode(long afterId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(afterId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into the ID after which the next page starts.
+     *
+     * @param cursor the cursor, or {@code null} for the first page
+     * @return the ID to seek after
+     * @throws BadRequestException if the cursor is malformed
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Builds the limit for a page fetch. One extra row is requested to detect whether a next page exists,
+     * so no count query is needed.
+     *
+     * @param size the requested page size
+     * @return the limit to pass to the repository
+     * @throws BadRequestException if the size is out of range
+     */
+    public static Pageable limit(int size) {
+        if (size < 1 || size > MAX_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_SIZE);
+        }
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * Builds a page from rows fetched with {@link #limit(int)}.
+     *
+     * @param rows  the fetched rows, at most {@code size + 1}
+     * @param size  the requested page size
+     * @param idOf  extracts the seek key of a row
+     * @return the page with the cursor of the next page
+     */
+    public static <T> KeysetPage<T> page(List<T> rows, int size, ToLongFunction<T> idOf) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, rows.size(), null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new KeysetPage<>(content, size, encode(idOf.applyAsLong(content.get(size - 1))));
+    }
+}
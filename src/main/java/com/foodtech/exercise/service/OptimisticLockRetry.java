@@ -0,0 +1,74 @@
+/**
+ * The OptimisticLockRetry class repeats read-modify-write operations that lost an optimistic lock.
+ */
+package com.foodtech.exercise.service;
+
+import com.foodtech.exercise.exception.ConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+@Component
+public class OptimisticLockRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public OptimisticLockRetry(PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.optimistic-lock.max-attempts:3}") int maxAttempts,
+                               @Value("${app.optimistic-lock.initial-backoff-ms:10}") long initialBackoffMillis,
+                               @Value("${app.optimistic-lock.max-backoff-ms:200}") long maxBackoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * Runs the operation in its own transaction. When a concurrent update commits first and the version check
+     * fails, the operation is run again in a new transaction, after an exponentially growing delay with full
+     * jitter so that the competing writers spread out. Every conflict is counted as
+     * {@code service.optimistic_lock.conflicts}, tagged with the operation and whether it was retried.
+     *
+     * @param operation the name of the operation, used as metric tag
+     * @param action    the read-modify-write to run
+     * @return the result of the first attempt that commits
+     * @throws ConflictException if every attempt lost the optimistic lock
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                boolean retry = attempt < maxAttempts;
+                meterRegistry.counter("service.optimistic_lock.conflicts",
+                        "operation", operation, "outcome", retry ? "retried" : "exhausted").increment();
+                if (!retry) {
+                    throw new ConflictException("Gave up " + operation + " after " + attempt + " concurrent modifications");
+                }
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while retrying a concurrent modification");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.foodtech.exercise.service;
+
+import lombok.Data;
+
+/**
+ * Published once the change feed has advanced, that is new feed positions have been committed.
+ */
+@Data
+public class OutboxCommittedEvent {
+
+    /**
+     * The highest committed feed position.
+     */
+    private final long lastSequence;
+}
@@ -0,0 +1,68 @@
+/**
+ * The OutboxSequencer class gives feed positions to committed outbox changes. It relies on PostgreSQL advisory
+ * locks and is turned off with app.outbox.sequencer.enabled=false on other databases.
+ */
+package com.foodtech.exercise.service;
+
+import com.foodtech.exercise.repository.ChangeEventRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@ConditionalOnProperty(name = "app.outbox.sequencer.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxSequencer {
+
+    static final int BATCH_SIZE = 1000;
+
+    /**
+     * The advisory lock that lets only one instance at a time assign feed positions.
+     */
+    static final long LOCK_KEY = 0x6f7574626f78L;
+
+    private final ChangeEventRepository changeEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * The last feed position announced to the long polls of this instance.
+     */
+    private final AtomicLong lastAnnounced = new AtomicLong(-1);
+
+    public OutboxSequencer(ChangeEventRepository changeEventRepository, ApplicationEventPublisher eventPublisher) {
+        this.changeEventRepository = changeEventRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Gives feed positions to committed changes and announces new positions to the long polls of this instance.
+     * Every instance runs it, but only the one holding the sequencer lock assigns positions. The lock is held until
+     * the positions are committed, so they become visible in increasing order however many instances append
+     * changes, and a consumer never moves past a lower position that is not visible yet. A backlog is
+     * sequenced in batches, all within the same lock and transaction.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${app.outbox.sequencer.interval-ms:100}")
+    public void sequence() {
+        if (changeEventRepository.tryAdvisoryXactLock(LOCK_KEY)) {
+            while (changeEventRepository.assignPositions(BATCH_SIZE) == BATCH_SIZE) {
+                // Keep going until the backlog is drained
+            }
+        }
+        long lastPosition = changeEventRepository.findLastPosition();
+        if (lastPosition > lastAnnounced.get()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    lastAnnounced.accumulateAndGet(lastPosition, Math::max);
+                    eventPublisher.publishEvent(new OutboxCommittedEvent(lastPosition));
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * The OutboxService class appends employee and department changes to the transactional outbox and reads them back.
+ */
+package com.foodtech.exercise.service;
+
+import com.foodtech.exercise.dto.response.ChangeFeedResponse;
+import com.foodtech.exercise.exception.BadRequestException;
+import com.foodtech.exercise.exception.GoneException;
+import com.foodtech.exercise.model.ChangeEvent;
+import com.foodtech.exercise.model.ChangeEvent.AggregateType;
+import com.foodtech.exercise.model.ChangeEvent.Operation;
+import com.foodtech.exercise.repository.ChangeEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+@Service
+public class OutboxService {
+
+    public static final int MAX_LIMIT = 1000;
+
+    private final ChangeEventRepository changeEventRepository;
+    private final Duration retention;
+
+    public OutboxService(ChangeEventRepository changeEventRepository,
+                         @Value("${app.outbox.retention:7d}") Duration retention) {
+        this.changeEventRepository = changeEventRepository;
+        this.retention = retention;
+    }
+
+    /**
+     * Appends a change to the outbox in the current transaction.
+     *
+     * @param aggregateType the type of the changed aggregate
+     * @param aggregateId   the ID of the changed aggregate
+     * @param operation     what happened to the aggregate
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(AggregateType aggregateType, long aggregateId, Operation operation) {
+        append(aggregateType, Collections.singletonList(aggregateId), operation);
+    }
+
+    /**
+     * Appends the same change of many aggregates to the outbox in the current transaction, with batched inserts.
+     *
+     * @param aggregateType the type of the changed aggregates
+     * @param aggregateIds  the IDs of the changed aggregates
+     * @param operation     what happened to the aggregates
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(AggregateType aggregateType, Collection<Long> aggregateIds, Operation operation) {
+        if (!aggregateIds.isEmpty()) {
+            changeEventRepository.insertAll(aggregateType, aggregateIds, operation, new Date());
+        }
+    }
+
+    /**
+     * Retrieves the changes after the given feed position, in position order. This runs on the primary, so that
+     * a long poll woken by the sequencer sees the positions it was woken for.
+     *
+     * @param since the last position the consumer has applied, {@code 0} to start from the oldest retained change
+     * @param limit the maximum number of changes
+     * @return the changes and the position to continue from
+     * @throws BadRequestException if the position is negative or the limit is out of range
+     * @throws GoneException       if changes after the position have been purged, so the consumer has to reload
+     */
+    @Transactional
+    public ChangeFeedResponse findChanges(long since, int limit) {
+        if (since < 0 || limit < 1 || limit > MAX_LIMIT) {
+            throw new BadRequestException("since must not be negative and limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<ChangeEvent> events = changeEventRepository.findByPositionGreaterThanOrderByPositionAsc(
+                since, PageRequest.of(0, limit));
+        // Checked after the read: the first position only grows, so a purge before the read is caught here
+        Long firstPosition = since > 0 ? changeEventRepository.findFirstPosition() : null;
+        if (firstPosition != null && since < firstPosition - 1) {
+            throw new GoneException("Changes after position " + since + " have been purged; reload and start again from 0");
+        }
+        return new ChangeFeedResponse(events, events.isEmpty() ? since : events.get(events.size() - 1).getPosition());
+    }
+
+    /**
+     * Deletes the changes older than the retention, in position order. Consumers that fall further behind get
+     * 410 Gone and have to reload.
+     *
+     * @return the number of deleted changes
+     */
+    @Transactional
+    @Scheduled(cron = "${app.outbox.purge-cron:0 30 * * * *}")
+    public int purge() {
+        return changeEventRepository.deletePositionedBefore(new Date(System.currentTimeMillis() - retention.toMillis()));
+    }
+}
@@ -0,0 +1,41 @@
+-- Sequences back the pooled identifier generators; the increment must equal the entity allocationSize
+CREATE SEQUENCE department_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE employee_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE department
+(
+    id         BIGINT       NOT NULL,
+    created_at TIMESTAMP    NOT NULL,
+    updated_at TIMESTAMP    NOT NULL,
+    name       VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_department PRIMARY KEY (id),
+    CONSTRAINT uk_department_name UNIQUE (name)
+);
+
+CREATE TABLE employee
+(
+    id            BIGINT       NOT NULL,
+    created_at    TIMESTAMP    NOT NULL,
+    updated_at    TIMESTAMP    NOT NULL,
+    first_name    VARCHAR(255) NOT NULL,
+    last_name     VARCHAR(255) NOT NULL,
+    version       BIGINT       NOT NULL DEFAULT 0,
+    department_id BIGINT,
+    CONSTRAINT pk_employee PRIMARY KEY (id),
+    CONSTRAINT fk_employee_department FOREIGN KEY (department_id) REFERENCES department (id)
+);
+
+CREATE TABLE department_employee_count
+(
+    department_id  BIGINT NOT NULL,
+    employee_count BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT pk_department_employee_count PRIMARY KEY (department_id),
+    CONSTRAINT fk_department_employee_count_department FOREIGN KEY (department_id) REFERENCES department (id)
+);
+
+-- Foreign key lookups (findByDepartmentId, findByIdAndDepartmentId, detaching employees on department delete)
+-- and keyset pages of a department's employees ordered by id
+CREATE INDEX idx_employee_department_id_id ON employee (department_id, id);
+
+-- Case-insensitive prefix search on names; varchar_pattern_ops lets LIKE 'abc%' use the index under any collation
+CREATE INDEX idx_employee_name_prefix ON employee (lower(last_name) varchar_pattern_ops, lower(first_name) varchar_pattern_ops);
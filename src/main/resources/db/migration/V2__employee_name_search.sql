@@ -0,0 +1,7 @@
+-- Trigram index for fuzzy name search (the % similarity operator)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_employee_full_name_trgm ON employee USING gin ((lower(first_name) || ' ' || lower(last_name)) gin_trgm_ops);
+
+-- Prefix search matches either name; idx_employee_name_prefix already serves the last name
+CREATE INDEX idx_employee_first_name_prefix ON employee (lower(first_name) varchar_pattern_ops);
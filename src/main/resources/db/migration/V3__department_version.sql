@@ -0,0 +1,2 @@
+-- Optimistic locking for department updates
+ALTER TABLE department ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,6 @@
+-- Covering index for GET /departments/{id}/employees, so keyset pages and exports are index-only scans.
+-- It replaces the narrower (department_id, id) index, which it makes redundant.
+CREATE INDEX idx_employee_department_listing ON employee (department_id, id)
+    INCLUDE (first_name, last_name, version, created_at, updated_at);
+
+DROP INDEX idx_employee_department_id_id;
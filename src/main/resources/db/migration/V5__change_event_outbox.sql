@@ -0,0 +1,15 @@
+-- Transactional outbox of employee and department changes, served incrementally by GET /api/v1/changes
+CREATE SEQUENCE change_event_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE change_event
+(
+    id             BIGINT      NOT NULL,
+    aggregate_type VARCHAR(32) NOT NULL,
+    aggregate_id   BIGINT      NOT NULL,
+    operation      VARCHAR(32) NOT NULL,
+    occurred_at    TIMESTAMP   NOT NULL,
+    CONSTRAINT pk_change_event PRIMARY KEY (id)
+);
+
+-- Purging expired events
+CREATE INDEX idx_change_event_occurred_at ON change_event (occurred_at);
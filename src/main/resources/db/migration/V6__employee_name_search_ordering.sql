@@ -0,0 +1,14 @@
+-- Prefix search runs one branch per name, each ordered by the name it matched. Under the "C" collation a plain
+-- btree index serves both LIKE 'abc%' and that ORDER BY, so every branch stops after the requested rows;
+-- the varchar_pattern_ops indexes only served the filter and left the ordering to a sort of all matches.
+CREATE INDEX idx_employee_last_name_search ON employee (lower(last_name) COLLATE "C", lower(first_name) COLLATE "C", id);
+CREATE INDEX idx_employee_first_name_search ON employee (lower(first_name) COLLATE "C", lower(last_name) COLLATE "C", id);
+
+DROP INDEX idx_employee_name_prefix;
+DROP INDEX idx_employee_first_name_prefix;
+
+-- Fuzzy search orders by trigram distance (<->), which only a GiST index can return in order (KNN);
+-- it serves the % filter as well, so it replaces the GIN index.
+CREATE INDEX idx_employee_full_name_trgm_gist ON employee USING gist ((lower(first_name) || ' ' || lower(last_name)) gist_trgm_ops);
+
+DROP INDEX idx_employee_full_name_trgm;
@@ -0,0 +1,14 @@
+-- Event IDs come from a pooled sequence, so instances allocate them in interleaved blocks and commit them in any
+-- order. The feed is read by position instead, which one sequencer at a time assigns to committed events only:
+-- positions become visible in increasing order on every instance.
+ALTER TABLE change_event ADD COLUMN position BIGINT;
+
+-- Existing events keep the sequence consumers already hold
+UPDATE change_event SET position = id;
+
+CREATE SEQUENCE change_feed_position_seq;
+SELECT setval('change_feed_position_seq', COALESCE(max(id), 0) + 1, false) FROM change_event;
+
+CREATE UNIQUE INDEX idx_change_event_position ON change_event (position);
+-- Events waiting for the sequencer
+CREATE INDEX idx_change_event_unpositioned ON change_event (id) WHERE position IS NULL;
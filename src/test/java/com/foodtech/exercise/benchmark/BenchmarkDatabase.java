@@ -0,0 +1,41 @@
+package com.foodtech.exercise.benchmark;
+
+import com.foodtech.exercise.ExerciseApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Starts the application against an in-memory database for the service benchmarks.
+ */
+final class BenchmarkDatabase {
+
+    /**
+     * Plain embedded H2.
+     */
+    static final String H2 = "h2";
+
+    /**
+     * Embedded H2 in PostgreSQL compatibility mode, a local stand-in for the production database.
+     */
+    static final String POSTGRES = "postgres";
+
+    private BenchmarkDatabase() {
+    }
+
+    static ConfigurableApplicationContext start(String database, String... properties) {
+        String url = POSTGRES.equals(database)
+                ? "jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"
+                : "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1";
+        return new SpringApplicationBuilder(ExerciseApplication.class)
+                .profiles("h2")
+                .properties("spring.datasource.url=" + url,
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "server.port=0",
+                        "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,92 @@
+package com.foodtech.exercise.benchmark;
+
+import com.foodtech.exercise.dto.request.DepartmentRequest;
+import com.foodtech.exercise.dto.request.EmployeeRequest;
+import com.foodtech.exercise.dto.response.DepartmentResponse;
+import com.foodtech.exercise.model.Department;
+import com.foodtech.exercise.model.Employee;
+import com.foodtech.exercise.service.DepartmentService;
+import com.foodtech.exercise.service.EmployeeService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the employee write path that resolves the department, with and without the department
+ * second-level cache. The {@code departmentLoads} counter reports the department SELECTs issued; with the
+ * cache it stays at zero once the department is cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DepartmentCacheBenchmark {
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private Statistics statistics;
+    private long departmentId;
+    private List<EmployeeRequest> employee;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkDatabase.start(BenchmarkDatabase.POSTGRES,
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                "spring.jpa.properties.hibernate.generate_statistics=true");
+        employeeService = context.getBean(EmployeeService.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        DepartmentRequest department = new DepartmentRequest();
+        department.setName("Department");
+        DepartmentResponse saved = context.getBean(DepartmentService.class).save(department);
+        departmentId = saved.getId();
+
+        EmployeeRequest request = new EmployeeRequest();
+        request.setFirstName("John");
+        request.setLastName("Doe");
+        employee = Collections.singletonList(request);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    /**
+     * Department SELECTs issued during the iteration, reported next to the timings.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long departmentLoads;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            departmentLoads = 0;
+        }
+    }
+
+    @Benchmark
+    public List<Employee> saveAll(Counters counters) {
+        long loads = departmentLoadCount();
+        List<Employee> saved = employeeService.saveAll(departmentId, employee);
+        counters.departmentLoads += departmentLoadCount() - loads;
+        return saved;
+    }
+
+    private long departmentLoadCount() {
+        return statistics.getEntityStatistics(Department.class.getName()).getLoadCount();
+    }
+}
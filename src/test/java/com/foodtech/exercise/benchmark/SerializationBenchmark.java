@@ -0,0 +1,154 @@
+package com.foodtech.exercise.benchmark;
+
+import com.foodtech.exercise.configuration.BinaryFormatConfig;
+import com.foodtech.exercise.dto.response.DepartmentResponse;
+import com.foodtech.exercise.dto.response.EmployeeResponse;
+import com.foodtech.exercise.model.Department;
+import com.foodtech.exercise.model.Employee;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Measures serialization of the response DTOs in every response format: JSON, gzipped JSON as sent with response
+ * compression, Smile and CBOR. The bodies are written by the HTTP message converters of the application, built
+ * from the same auto-configuration and {@link BinaryFormatConfig} as at runtime. The {@code payloadBytes} counter
+ * reports the size of the last body written in the iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    private int employeesPerDepartment;
+
+    @Param({"json", "json-gzip", "smile", "cbor"})
+    private String format;
+
+    private ConfigurableApplicationContext context;
+    private HttpMessageConverter<Object> converter;
+    private MediaType mediaType;
+    private boolean gzip;
+    private DepartmentResponse department;
+    private EmployeeResponse employee;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        context = new SpringApplicationBuilder(JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+                BinaryFormatConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN")
+                .run();
+        mediaType = format.equals("smile") ? MediaType.valueOf("application/x-jackson-smile")
+                : format.equals("cbor") ? MediaType.APPLICATION_CBOR
+                : MediaType.APPLICATION_JSON;
+        converter = (HttpMessageConverter<Object>) context.getBean(HttpMessageConverters.class).getConverters().stream()
+                .filter(candidate -> candidate.canWrite(DepartmentResponse.class, mediaType))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No converter writes " + mediaType));
+        gzip = format.equals("json-gzip");
+
+        Department entity = new Department();
+        entity.setId(1L);
+        entity.setName("Engineering");
+        entity.setCreatedAt(new Date());
+        entity.setUpdatedAt(new Date());
+        for (int i = 0; i < employeesPerDepartment; i++) {
+            Employee member = new Employee();
+            member.setId(i + 1);
+            member.setFirstName("First" + i);
+            member.setLastName("Last" + i);
+            member.setCreatedAt(new Date());
+            member.setUpdatedAt(new Date());
+            entity.addEmployee(member);
+        }
+        department = DepartmentResponse.of(entity);
+        employee = department.getEmployees().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Size of the last body written in the iteration, reported next to the timings.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long payloadBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            payloadBytes = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeEmployee(Counters counters) throws IOException {
+        byte[] body = serialize(employee);
+        counters.payloadBytes = body.length;
+        return body;
+    }
+
+    @Benchmark
+    public byte[] serializeDepartment(Counters counters) throws IOException {
+        byte[] body = serialize(department);
+        counters.payloadBytes = body.length;
+        return body;
+    }
+
+    private byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (!gzip) {
+            converter.write(value, mediaType, new OutputMessage(bytes));
+            return bytes.toByteArray();
+        }
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            converter.write(value, mediaType, new OutputMessage(out));
+        }
+        return bytes.toByteArray();
+    }
+
+    private static final class OutputMessage implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final OutputStream body;
+
+        private OutputMessage(OutputStream body) {
+            this.body = body;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
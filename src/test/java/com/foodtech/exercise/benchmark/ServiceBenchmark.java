@@ -0,0 +1,158 @@
+package com.foodtech.exercise.benchmark;
+
+import com.foodtech.exercise.dto.request.DepartmentRequest;
+import com.foodtech.exercise.dto.request.EmployeeRequest;
+import com.foodtech.exercise.dto.response.DepartmentResponse;
+import com.foodtech.exercise.dto.response.EmployeeResponse;
+import com.foodtech.exercise.dto.response.KeysetPage;
+import com.foodtech.exercise.model.Employee;
+import com.foodtech.exercise.service.DepartmentService;
+import com.foodtech.exercise.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the service layer end to end, including Hibernate and the JDBC driver.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    private static final int DEPARTMENTS = 10;
+    private static final int EMPLOYEES_PER_DEPARTMENT = 1000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({BenchmarkDatabase.H2, BenchmarkDatabase.POSTGRES})
+    private String database;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private DepartmentService departmentService;
+    private long departmentId;
+    private long firstEmployeeId;
+    private long lastEmployeeId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkDatabase.start(database);
+        employeeService = context.getBean(EmployeeService.class);
+        departmentService = context.getBean(DepartmentService.class);
+
+        for (int d = 0; d < DEPARTMENTS; d++) {
+            DepartmentResponse department = createDepartment("Department " + d);
+            List<Employee> employees = employeeService.saveAll(department.getId(), employeeRequests(EMPLOYEES_PER_DEPARTMENT));
+            if (d == 0) {
+                departmentId = department.getId();
+                firstEmployeeId = employees.get(0).getId();
+            }
+            lastEmployeeId = employees.get(employees.size() - 1).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee save() {
+        EmployeeRequest request = new EmployeeRequest();
+        request.setFirstName("John");
+        request.setLastName("Doe");
+        return employeeService.save(departmentId, request);
+    }
+
+    @Benchmark
+    public Employee findById() {
+        return employeeService.findById(ThreadLocalRandom.current().nextLong(firstEmployeeId, lastEmployeeId + 1));
+    }
+
+    @Benchmark
+    public Page<Employee> findAllPageable() {
+        int pages = DEPARTMENTS * EMPLOYEES_PER_DEPARTMENT / PAGE_SIZE;
+        return employeeService.findAll(PageRequest.of(ThreadLocalRandom.current().nextInt(pages), PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<Employee> findAll() {
+        return employeeService.findAll();
+    }
+
+    @Benchmark
+    public List<DepartmentResponse> findAllDepartments() {
+        return departmentService.findAll();
+    }
+
+    /**
+     * The path clients used before the per-department listing: load the department and its lazy employee set.
+     */
+    @Benchmark
+    public DepartmentResponse departmentEmployeesLazyCollection() {
+        return departmentService.findById(departmentId);
+    }
+
+    @Benchmark
+    public void departmentEmployeesKeysetPages(Blackhole blackhole) {
+        String cursor = null;
+        do {
+            KeysetPage<EmployeeResponse> page = employeeService.findByDepartmentId(departmentId, cursor, 100);
+            blackhole.consume(page.getContent());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+    }
+
+    @Benchmark
+    public void departmentEmployeesStream(Blackhole blackhole) {
+        employeeService.streamByDepartmentId(departmentId, blackhole::consume);
+    }
+
+    @Benchmark
+    public void delete(DepartmentToDelete department) {
+        departmentService.delete(department.id);
+    }
+
+    /**
+     * A fresh department with employees for every invocation of {@link #delete(DepartmentToDelete)}.
+     */
+    @State(Scope.Thread)
+    public static class DepartmentToDelete {
+
+        private long id;
+
+        @Setup(Level.Invocation)
+        public void create(ServiceBenchmark benchmark) {
+            DepartmentResponse department = benchmark.createDepartment("Delete " + System.nanoTime());
+            benchmark.employeeService.saveAll(department.getId(), employeeRequests(10));
+            id = department.getId();
+        }
+    }
+
+    private DepartmentResponse createDepartment(String name) {
+        DepartmentRequest request = new DepartmentRequest();
+        request.setName(name);
+        return departmentService.save(request);
+    }
+
+    private static List<EmployeeRequest> employeeRequests(int count) {
+        List<EmployeeRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            EmployeeRequest request = new EmployeeRequest();
+            request.setFirstName("First" + i);
+            request.setLastName("Last" + i);
+            requests.add(request);
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,66 @@
+package com.foodtech.exercise.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    void testRejectsAboveLimit() {
+        // Prepare
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 2, TARGET, 0.5);
+
+        // Execute and Verify
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        limiter.release(TARGET, true);
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void testSlowAndFailedRequestsShrinkTheLimit() {
+        // Prepare
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 8, TARGET, 0.5);
+
+        // Execute
+        limiter.tryAcquire();
+        limiter.release(TARGET + 1, true);
+        int afterSlow = limiter.getLimit();
+        limiter.tryAcquire();
+        limiter.release(0L, false);
+        limiter.tryAcquire();
+        limiter.release(0L, false);
+        limiter.tryAcquire();
+        limiter.release(0L, false);
+
+        // Verify
+        assertEquals(4, afterSlow);
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void testFastRequestsGrowTheLimitUpToMax() {
+        // Prepare
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 3, TARGET, 0.5);
+        limiter.tryAcquire();
+        limiter.release(TARGET + 1, true);
+        assertEquals(1, limiter.getLimit());
+
+        // Execute
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(1L, true);
+        }
+
+        // Verify
+        assertEquals(3, limiter.getLimit());
+    }
+}
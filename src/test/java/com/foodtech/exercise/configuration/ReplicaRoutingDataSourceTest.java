@@ -0,0 +1,162 @@
+package com.foodtech.exercise.configuration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica0;
+    private DataSource replica1;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica0 = replicaWithLag(0.5);
+        replica1 = replicaWithLag(0.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void testWritesGoToPrimary() {
+        // Prepare
+        ReplicaRoutingDataSource dataSource = routingDataSource();
+
+        // Execute and Verify
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void testReadsAreSpreadOverReplicas() {
+        // Prepare
+        ReplicaRoutingDataSource dataSource = routingDataSource();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Execute
+        Object first = dataSource.determineCurrentLookupKey();
+        Object second = dataSource.determineCurrentLookupKey();
+
+        // Verify
+        assertEquals(Arrays.asList("replica-0", "replica-1"), dataSource.getAvailableReplicas());
+        assertNotEquals(first, second);
+        assertTrue(dataSource.getAvailableReplicas().contains(first));
+        assertTrue(dataSource.getAvailableReplicas().contains(second));
+    }
+
+    @Test
+    void testLaggingAndUnreachableReplicasAreRemoved() throws SQLException {
+        // Prepare
+        replica0 = replicaWithLag(30.0);
+        replica1 = mock(DataSource.class);
+        when(replica1.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReplicaRoutingDataSource dataSource = routingDataSource();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Execute
+        Object key = dataSource.determineCurrentLookupKey();
+
+        // Verify
+        assertEquals(Collections.emptyList(), dataSource.getAvailableReplicas());
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, key);
+    }
+
+    @Test
+    void testRecoveredReplicaIsAddedBack() throws SQLException {
+        // Prepare
+        DataSource recovering = mock(DataSource.class);
+        Connection connection = connectionWithLag(0.0);
+        when(recovering.getConnection()).thenThrow(new SQLException("Connection refused")).thenReturn(connection);
+        replica1 = recovering;
+        ReplicaRoutingDataSource dataSource = routingDataSource();
+
+        // Execute
+        dataSource.checkReplicas();
+
+        // Verify
+        assertEquals(Arrays.asList("replica-0", "replica-1"), dataSource.getAvailableReplicas());
+    }
+
+    @Test
+    void testIdleReplicaHasNoLag() throws SQLException {
+        // Prepare
+        replica0 = mock(DataSource.class);
+        Connection connection = replicaConnection(true, true, 3600.0);
+        when(replica0.getConnection()).thenReturn(connection);
+
+        // Execute
+        ReplicaRoutingDataSource dataSource = routingDataSource();
+
+        // Verify
+        assertEquals(Arrays.asList("replica-0", "replica-1"), dataSource.getAvailableReplicas());
+    }
+
+    @Test
+    void testReplicaDisconnectedFromPrimaryIsRemoved() throws SQLException {
+        // Prepare
+        replica0 = mock(DataSource.class);
+        Connection connection = replicaConnection(false, true, 3600.0);
+        when(replica0.getConnection()).thenReturn(connection);
+
+        // Execute
+        ReplicaRoutingDataSource dataSource = routingDataSource();
+
+        // Verify
+        assertEquals(Collections.singletonList("replica-1"), dataSource.getAvailableReplicas());
+    }
+
+    private ReplicaRoutingDataSource routingDataSource() {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replica0);
+        replicas.put("replica-1", replica1);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(5));
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+
+    private static DataSource replicaWithLag(double lagSeconds) throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = connectionWithLag(lagSeconds);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private static Connection connectionWithLag(double lagSeconds) throws SQLException {
+        return replicaConnection(true, false, lagSeconds);
+    }
+
+    private static Connection replicaConnection(boolean streaming, boolean replayedAllReceived, double lastReplayAgeSeconds)
+            throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBoolean(1)).thenReturn(true);
+        when(resultSet.getBoolean(2)).thenReturn(replayedAllReceived);
+        when(resultSet.getDouble(3)).thenReturn(lastReplayAgeSeconds);
+        when(resultSet.getBoolean(4)).thenReturn(streaming);
+        return connection;
+    }
+}
@@ -0,0 +1,57 @@
+package com.foodtech.exercise.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    @Test
+    void testBurstThenRefill() {
+        // Prepare
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 3, clock::get);
+
+        // Execute and Verify
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0L, limiter.tryAcquire("client"));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.tryAcquire("client"));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0L, limiter.tryAcquire("client"));
+        assertTrue(limiter.tryAcquire("client") > 0);
+    }
+
+    @Test
+    void testBucketsAreKeyed() {
+        // Prepare
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, clock::get);
+
+        // Execute and Verify
+        assertEquals(0L, limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0L, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void testEvictIdleRemovesFullBuckets() {
+        // Prepare
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 2, clock::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+        limiter.tryAcquire("b");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        // Execute
+        limiter.evictIdle();
+
+        // Verify
+        assertEquals(1, limiter.size());
+        assertEquals(0L, limiter.tryAcquire("a"));
+    }
+}
@@ -0,0 +1,174 @@
+package com.foodtech.exercise.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.DispatcherType;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteAdmissionInterceptorTest {
+
+    private static final String URI = "/api/v1/departments/{departmentId}/employees";
+    private static final String PROXY = "10.0.0.1";
+
+    private MeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private AdaptiveConcurrencyLimiter bulkConcurrencyLimiter;
+    private WriteAdmissionInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        concurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, TimeUnit.SECONDS.toNanos(1), 0.9);
+        bulkConcurrencyLimiter = new AdaptiveConcurrencyLimiter(1, 1, TimeUnit.SECONDS.toNanos(10), 0.9);
+        interceptor = new WriteAdmissionInterceptor(meterRegistry, true, new TokenBucketRateLimiter(1, 1), concurrencyLimiter,
+                bulkConcurrencyLimiter, Collections.singleton(PROXY));
+    }
+
+    @Test
+    void testReadsAreNotLimited() {
+        // Execute and Verify
+        for (int i = 0; i < 3; i++) {
+            assertTrue(interceptor.preHandle(request("GET", "client"), new MockHttpServletResponse(), null));
+        }
+        assertEquals(0, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    void testRateLimitedWriteIsRejected() {
+        // Prepare
+        MockHttpServletRequest first = request("POST", "client");
+        interceptor.preHandle(first, new MockHttpServletResponse(), null);
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Execute
+        boolean admitted = interceptor.preHandle(request("POST", "client"), response, null);
+
+        // Verify
+        assertFalse(admitted);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("http.server.requests.shed").tag("reason", "rate_limit").counter().count());
+        assertTrue(interceptor.preHandle(request("POST", "other"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void testWriteAboveConcurrencyLimitIsRejectedUntilReleased() {
+        // Prepare
+        MockHttpServletRequest first = request("DELETE", "a");
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), null));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Execute
+        boolean admitted = interceptor.preHandle(request("DELETE", "b"), response, null);
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+
+        // Verify
+        assertFalse(admitted);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals(1.0, meterRegistry.get("http.server.requests.shed").tag("reason", "concurrency").counter().count());
+        assertEquals(0, concurrencyLimiter.getInFlight());
+        assertTrue(interceptor.preHandle(request("DELETE", "c"), new MockHttpServletResponse(), null));
+    }
+
+    @Test
+    void testHandedOffWriteReleasesItsSlot() {
+        // Prepare
+        MockHttpServletRequest queued = request("POST", "a");
+        assertTrue(interceptor.preHandle(queued, new MockHttpServletResponse(), null));
+
+        // Execute
+        interceptor.afterConcurrentHandlingStarted(queued, new MockHttpServletResponse(), null);
+        boolean admitted = interceptor.preHandle(request("POST", "b"), new MockHttpServletResponse(), null);
+        queued.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.afterCompletion(queued, new MockHttpServletResponse(), null, null);
+
+        // Verify
+        assertTrue(admitted);
+        assertEquals(1, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    void testBulkWriteHasItsOwnConcurrencyLimit() throws NoSuchMethodException {
+        // Prepare
+        HandlerMethod bulkHandler = new HandlerMethod(new Handlers(), Handlers.class.getMethod("bulk"));
+        HandlerMethod singleHandler = new HandlerMethod(new Handlers(), Handlers.class.getMethod("single"));
+        MockHttpServletRequest bulk = request("POST", "a");
+        assertTrue(interceptor.preHandle(bulk, new MockHttpServletResponse(), bulkHandler));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Execute
+        boolean secondBulkAdmitted = interceptor.preHandle(request("POST", "b"), response, bulkHandler);
+        boolean singleAdmitted = interceptor.preHandle(request("POST", "c"), new MockHttpServletResponse(), singleHandler);
+        interceptor.afterCompletion(bulk, new MockHttpServletResponse(), bulkHandler, null);
+
+        // Verify
+        assertFalse(secondBulkAdmitted);
+        assertTrue(singleAdmitted);
+        assertEquals(1.0, meterRegistry.get("http.server.requests.shed").tag("reason", "bulk_concurrency").counter().count());
+        assertEquals(0, bulkConcurrencyLimiter.getInFlight());
+        assertEquals(1, concurrencyLimiter.getInFlight());
+    }
+
+    @Test
+    void testClientIdHeaderIsIgnoredFromUntrustedAddress() {
+        // Prepare
+        MockHttpServletRequest first = request("POST", "192.168.1.5", "first");
+        interceptor.preHandle(first, new MockHttpServletResponse(), null);
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Execute
+        boolean admitted = interceptor.preHandle(request("POST", "192.168.1.5", "rotated"), response, null);
+
+        // Verify
+        assertFalse(admitted);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+    }
+
+    @Test
+    void testClientIdHeaderIsTrustedFromProxy() {
+        // Prepare
+        MockHttpServletRequest first = request("POST", PROXY, "first");
+        interceptor.preHandle(first, new MockHttpServletResponse(), null);
+        interceptor.afterCompletion(first, new MockHttpServletResponse(), null, null);
+
+        // Execute and Verify
+        assertFalse(interceptor.preHandle(request("POST", PROXY, "first"), new MockHttpServletResponse(), null));
+        assertTrue(interceptor.preHandle(request("POST", PROXY, "second"), new MockHttpServletResponse(), null));
+    }
+
+    static class Handlers {
+
+        @BulkWrite
+        public void bulk() {
+        }
+
+        public void single() {
+        }
+    }
+
+    private static MockHttpServletRequest request(String method, String clientId) {
+        return request(method, PROXY, clientId);
+    }
+
+    private static MockHttpServletRequest request(String method, String remoteAddress, String clientId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/v1/departments/1/employees");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, URI);
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader(WriteAdmissionInterceptor.CLIENT_ID_HEADER, clientId);
+        return request;
+    }
+}
@@ -0,0 +1,125 @@
+package com.foodtech.exercise.controller;
+
+import com.foodtech.exercise.exception.ResourceNotFoundException;
+import com.foodtech.exercise.exception.ServiceUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AsyncReadExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AsyncReadExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    void testReadResult() throws InterruptedException {
+        // Prepare
+        executor = new AsyncReadExecutor(mock(PlatformTransactionManager.class), 1, 1, 5000);
+
+        // Execute
+        DeferredResult<ResponseEntity<String>> result = executor.submit(() -> "read");
+
+        // Verify
+        await(result);
+        assertEquals(ResponseEntity.ok("read"), result.getResult());
+    }
+
+    @Test
+    void testErrorIsNotWrapped() throws InterruptedException {
+        // Prepare
+        executor = new AsyncReadExecutor(mock(PlatformTransactionManager.class), 1, 1, 5000);
+
+        // Execute
+        DeferredResult<ResponseEntity<String>> result = executor.submit(() -> {
+            throw new ResourceNotFoundException("missing");
+        });
+
+        // Verify
+        await(result);
+        assertTrue(result.getResult() instanceof ResourceNotFoundException);
+    }
+
+    @Test
+    void testRejectsWhenPoolAndQueueAreFull() {
+        // Prepare
+        executor = new AsyncReadExecutor(mock(PlatformTransactionManager.class), 1, 1, 5000);
+        executor.submit(this::blockingRead);
+        executor.submit(this::blockingRead);
+
+        // Execute and Verify
+        assertThrows(ServiceUnavailableException.class, () -> executor.submit(this::blockingRead));
+    }
+
+    @Test
+    void testTimedOutReadIsAnswered503AndNeverStarts() throws IOException, InterruptedException {
+        // Prepare
+        executor = new AsyncReadExecutor(mock(PlatformTransactionManager.class), 1, 1, 5000);
+        executor.submit(this::blockingRead);
+        AtomicBoolean started = new AtomicBoolean();
+        DeferredResult<ResponseEntity<String>> result = executor.submit(() -> {
+            started.set(true);
+            return "late";
+        });
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setAsyncWebRequest(new StandardServletAsyncWebRequest(request, new MockHttpServletResponse()));
+        try {
+            asyncManager.startDeferredResultProcessing(result);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+
+        // Execute
+        MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(new AsyncEvent(asyncContext));
+        }
+        release.countDown();
+        Thread.sleep(100);
+
+        // Verify
+        assertTrue(asyncManager.getConcurrentResult() instanceof ServiceUnavailableException);
+        assertFalse(started.get());
+    }
+
+    private String blockingRead() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "blocked";
+    }
+
+    private static void await(DeferredResult<?> result) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!result.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.foodtech.exercise.controller;
+
+import com.foodtech.exercise.dto.response.ChangeFeedResponse;
+import com.foodtech.exercise.model.ChangeEvent;
+import com.foodtech.exercise.model.ChangeEvent.AggregateType;
+import com.foodtech.exercise.model.ChangeEvent.Operation;
+import com.foodtech.exercise.service.OutboxCommittedEvent;
+import com.foodtech.exercise.service.OutboxService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ChangeFeedLongPollTest {
+
+    private OutboxService outboxService;
+    private ChangeFeedLongPoll longPoll;
+    private ChangeFeedResponse empty;
+    private ChangeFeedResponse changes;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = mock(OutboxService.class);
+        longPoll = new ChangeFeedLongPoll(outboxService, 30000, 1);
+        empty = new ChangeFeedResponse(Collections.emptyList(), 10L);
+        ChangeEvent event = new ChangeEvent(AggregateType.EMPLOYEE, 1L, Operation.CREATED, new Date());
+        event.setId(11L);
+        changes = new ChangeFeedResponse(Collections.singletonList(event), 11L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        longPoll.destroy();
+    }
+
+    @Test
+    void testPollAnswersRightAwayWithChanges() {
+        // Prepare
+        when(outboxService.findChanges(10L, 100)).thenReturn(changes);
+
+        // Execute
+        DeferredResult<ResponseEntity<ChangeFeedResponse>> result = longPoll.poll(10L, 100);
+
+        // Verify
+        assertTrue(result.hasResult());
+        assertSame(changes, ((ResponseEntity<?>) result.getResult()).getBody());
+    }
+
+    @Test
+    void testParkedPollIsAnsweredAfterCommit() throws InterruptedException {
+        // Prepare
+        when(outboxService.findChanges(10L, 100)).thenReturn(empty, changes);
+        DeferredResult<ResponseEntity<ChangeFeedResponse>> result = longPoll.poll(10L, 100);
+        assertFalse(result.hasResult());
+
+        // Execute
+        longPoll.onCommitted(new OutboxCommittedEvent(11L));
+
+        // Verify
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!result.hasResult() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(result.hasResult());
+        assertSame(changes, ((ResponseEntity<?>) result.getResult()).getBody());
+    }
+
+    @Test
+    void testCommitOfOlderChangesDoesNotWakePoll() {
+        // Prepare
+        when(outboxService.findChanges(10L, 100)).thenReturn(empty);
+        DeferredResult<ResponseEntity<ChangeFeedResponse>> result = longPoll.poll(10L, 100);
+
+        // Execute
+        longPoll.onCommitted(new OutboxCommittedEvent(10L));
+
+        // Verify
+        assertFalse(result.hasResult());
+        verify(outboxService, times(1)).findChanges(10L, 100);
+    }
+}
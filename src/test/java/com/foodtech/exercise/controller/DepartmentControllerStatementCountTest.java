@@ -0,0 +1,93 @@
+package com.foodtech.exercise.controller;
+
+import com.foodtech.exercise.model.Department;
+import com.foodtech.exercise.model.Employee;
+import com.foodtech.exercise.repository.DepartmentRepository;
+import com.foodtech.exercise.repository.EmployeeRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements of whole HTTP requests, as recorded by {@code http.server.requests.statements}, so
+ * that the conditional GET validators are included next to the query that loads the body: the department and
+ * employee version aggregates plus one fetch join, however many departments there are, and only the aggregates
+ * when the client revalidates.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+class DepartmentControllerStatementCountTest {
+
+    private static final int DEPARTMENTS = 5;
+    private static final int EMPLOYEES_PER_DEPARTMENT = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < DEPARTMENTS; i++) {
+            Department department = new Department();
+            department.setName("Dep " + i);
+            department = departmentRepository.save(department);
+            for (int j = 0; j < EMPLOYEES_PER_DEPARTMENT; j++) {
+                Employee employee = new Employee();
+                employee.setFirstName("First " + j);
+                employee.setLastName("Last " + i);
+                employee.setDepartment(department);
+                employeeRepository.save(employee);
+            }
+        }
+    }
+
+    @Test
+    void testGetAllDepartmentsStatementsPerRequest() throws Exception {
+        // Execute
+        String eTag = mockMvc.perform(get("/api/v1/departments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(DEPARTMENTS))
+                .andExpect(jsonPath("$[0].employees.length()").value(EMPLOYEES_PER_DEPARTMENT))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        DistributionSummary statements = meterRegistry.get("http.server.requests.statements")
+                .tag("method", "GET")
+                .tag("uri", "/api/v1/departments")
+                .summary();
+
+        // Verify
+        assertEquals(1, statements.count());
+        assertEquals(3.0, statements.totalAmount());
+
+        // Execute
+        mockMvc.perform(get("/api/v1/departments").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        // Verify
+        assertEquals(2, statements.count());
+        assertEquals(5.0, statements.totalAmount());
+    }
+}
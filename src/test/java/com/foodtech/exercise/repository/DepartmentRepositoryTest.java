@@ -0,0 +1,128 @@
+package com.foodtech.exercise.repository;
+
+import com.foodtech.exercise.dto.response.DepartmentResponse;
+import com.foodtech.exercise.dto.response.DepartmentSummaryResponse;
+import com.foodtech.exercise.model.Department;
+import com.foodtech.exercise.model.Employee;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+class DepartmentRepositoryTest {
+
+    private static final int DEPARTMENTS = 5;
+    private static final int EMPLOYEES_PER_DEPARTMENT = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < DEPARTMENTS; i++) {
+            Department department = new Department();
+            department.setName("Dep " + i);
+            entityManager.persist(department);
+            for (int j = 0; j < EMPLOYEES_PER_DEPARTMENT; j++) {
+                Employee employee = new Employee();
+                employee.setFirstName("First " + j);
+                employee.setLastName("Last " + i);
+                department.addEmployee(employee);
+                entityManager.persist(employee);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testFindAllWithEmployeesUsesSingleStatement() {
+        // Execute
+        List<DepartmentResponse> result = departmentRepository.findAllWithEmployees().stream()
+                .map(DepartmentResponse::of)
+                .collect(Collectors.toList());
+
+        // Verify
+        assertEquals(DEPARTMENTS, result.size());
+        result.forEach(department -> assertEquals(EMPLOYEES_PER_DEPARTMENT, department.getEmployees().size()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindWithEmployeesByIdUsesSingleStatement() {
+        // Prepare
+        Long departmentId = departmentRepository.findAll().get(0).getId();
+        entityManager.clear();
+        statistics.clear();
+
+        // Execute
+        DepartmentResponse result = departmentRepository.findWithEmployeesById(departmentId)
+                .map(DepartmentResponse::of)
+                .orElseThrow(IllegalStateException::new);
+
+        // Verify
+        assertEquals(EMPLOYEES_PER_DEPARTMENT, result.getEmployees().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindAllSummariesUsesSingleStatement() {
+        // Execute
+        List<DepartmentSummaryResponse> result = departmentRepository.findAllSummaries();
+
+        // Verify
+        assertEquals(DEPARTMENTS, result.size());
+        result.forEach(summary -> assertEquals(EMPLOYEES_PER_DEPARTMENT, summary.getEmployeeCount().intValue()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindAllWithLazyEmployeesIssuesOneStatementPerDepartment() {
+        // Execute
+        departmentRepository.findAll().forEach(department -> department.getEmployees().size());
+
+        // Verify
+        assertEquals(1 + DEPARTMENTS, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void testFindByIdIsServedFromSecondLevelCache() {
+        // Prepare
+        Long departmentId = departmentRepository.findAll().get(0).getId();
+        entityManager.clear();
+        departmentRepository.findById(departmentId);
+        entityManager.clear();
+        statistics.clear();
+
+        // Execute
+        Department result = departmentRepository.findById(departmentId).orElseThrow(IllegalStateException::new);
+
+        // Verify
+        assertEquals(departmentId.longValue(), result.getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+}
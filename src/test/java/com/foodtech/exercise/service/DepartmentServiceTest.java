@@ -1,8 +1,16 @@
 package com.foodtech.exercise.service;
 
 import com.foodtech.exercise.dto.request.DepartmentRequest;
+import com.foodtech.exercise.dto.response.DepartmentDeleteResponse;
+import com.foodtech.exercise.dto.response.DepartmentResponse;
+import com.foodtech.exercise.dto.response.DepartmentSummaryResponse;
+import com.foodtech.exercise.dto.response.ResourceVersion;
+import com.foodtech.exercise.exception.ConflictException;
 import com.foodtech.exercise.exception.ResourceNotFoundException;
+import com.foodtech.exercise.model.ChangeEvent.AggregateType;
+import com.foodtech.exercise.model.ChangeEvent.Operation;
 import com.foodtech.exercise.model.Department;
+import com.foodtech.exercise.model.Employee;
 import com.foodtech.exercise.repository.DepartmentRepository;
 import com.foodtech.exercise.repository.EmployeeRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,11 +19,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,12 +44,23 @@ class DepartmentServiceTest {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private DepartmentEmployeeCountService departmentEmployeeCountService;
+
+    @Mock
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Mock
+    private OutboxService outboxService;
+
     @InjectMocks
     private DepartmentService departmentService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(optimisticLockRetry.execute(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
     }
 
     @Test
@@ -49,31 +76,157 @@ class DepartmentServiceTest {
         dep2.setName("Dep2");
         departments.add(dep2);
 
-        when(departmentRepository.findAll()).thenReturn(departments);
+        when(departmentRepository.findAllWithEmployees()).thenReturn(departments);
 
         // Execute
-        List<Department> result = departmentService.findAll();
+        List<DepartmentResponse> result = departmentService.findAll();
 
         // Verify
         assertEquals(departments.size(), result.size());
-        assertEquals(departments, result);
-        verify(departmentRepository, times(1)).findAll();
+        assertEquals(dep1.getName(), result.get(0).getName());
+        assertEquals(dep2.getId(), result.get(1).getId());
+        verify(departmentRepository, times(1)).findAllWithEmployees();
+        verify(departmentRepository, never()).findAll();
     }
 
     @Test
     void testFindAllWithPageable() {
         // Prepare
-        Pageable pageable = Pageable.unpaged();
-        Page<Department> departmentPage = mock(Page.class);
+        Pageable pageable = PageRequest.of(0, 2);
+        Department dep1 = new Department();
+        dep1.setId(1L);
+        dep1.setName("Dep 1");
+        Department dep2 = new Department();
+        dep2.setId(2L);
+        dep2.setName("Dep 2");
+        List<Long> ids = Arrays.asList(2L, 1L);
+
+        when(departmentRepository.findIds(pageable)).thenReturn(new PageImpl<>(ids, pageable, 5));
+        when(departmentRepository.findAllWithEmployeesByIdIn(ids)).thenReturn(Arrays.asList(dep1, dep2));
+
+        // Execute
+        Page<DepartmentResponse> result = departmentService.findAll(pageable);
+
+        // Verify
+        assertEquals(5, result.getTotalElements());
+        assertEquals(dep2.getName(), result.getContent().get(0).getName());
+        assertEquals(dep1.getName(), result.getContent().get(1).getName());
+        verify(departmentRepository, never()).findAll(pageable);
+    }
+
+    @Test
+    void testFindAllWithEmployees() {
+        // Prepare
+        Department department = new Department();
+        department.setId(1L);
+        department.setName("Dep 1");
+        Employee employee = new Employee();
+        employee.setId(3L);
+        employee.setFirstName("John");
+        employee.setLastName("Doe");
+        department.addEmployee(employee);
+
+        when(departmentRepository.findAllWithEmployees()).thenReturn(Collections.singletonList(department));
+
+        // Execute
+        List<DepartmentResponse> result = departmentService.findAllWithEmployees();
+
+        // Verify
+        assertEquals(1, result.size());
+        assertEquals(department.getName(), result.get(0).getName());
+        assertEquals(1, result.get(0).getEmployees().size());
+        assertEquals(employee.getFirstName(), result.get(0).getEmployees().get(0).getFirstName());
+        verify(departmentRepository, times(1)).findAllWithEmployees();
+        verify(departmentRepository, never()).findAll();
+    }
+
+    @Test
+    void testFindByIdWithEmployeesNonExistingDepartment() {
+        // Prepare
+        Long departmentId = 1L;
+
+        when(departmentRepository.findWithEmployeesById(departmentId)).thenReturn(Optional.empty());
+
+        // Execute and Verify
+        assertThrows(ResourceNotFoundException.class, () -> departmentService.findByIdWithEmployees(departmentId));
+        verify(departmentRepository, times(1)).findWithEmployeesById(departmentId);
+    }
+
+    @Test
+    void testFindVersionCoversDepartmentsAndEmployees() {
+        // Prepare
+        Date departmentsModified = new Date(1000L);
+        Date employeesModified = new Date(2000L);
+        when(departmentRepository.findVersion()).thenReturn(new ResourceVersion(departmentsModified, 2L));
+        when(employeeRepository.findVersion()).thenReturn(new ResourceVersion(employeesModified, 5L));
+
+        // Execute
+        ResourceVersion result = departmentService.findVersion();
+
+        // Verify
+        assertEquals(employeesModified, result.getLastModified());
+        assertEquals(7L, result.getRevision().longValue());
+        assertEquals("W/\"7d0-7\"", result.getETag());
+        verify(departmentRepository, never()).findAll();
+    }
+
+    @Test
+    void testFindVersionOfDepartmentWithoutEmployees() {
+        // Prepare
+        Long departmentId = 1L;
+        Department department = new Department();
+        department.setId(departmentId);
+        department.setUpdatedAt(new Date(1000L));
+        when(departmentRepository.findById(departmentId)).thenReturn(Optional.of(department));
+        when(employeeRepository.findVersionByDepartmentId(departmentId)).thenReturn(new ResourceVersion(null, 0L));
+
+        // Execute
+        ResourceVersion result = departmentService.findVersion(departmentId);
+
+        // Verify
+        assertEquals(department.getUpdatedAt(), result.getLastModified());
+        assertEquals(1L, result.getRevision().longValue());
+    }
+
+    @Test
+    void testFindVersionOfNonExistingDepartment() {
+        // Prepare
+        Long departmentId = 1L;
+        when(departmentRepository.findById(departmentId)).thenReturn(Optional.empty());
+
+        // Execute and Verify
+        assertThrows(ResourceNotFoundException.class, () -> departmentService.findVersion(departmentId));
+        verify(employeeRepository, never()).findVersionByDepartmentId(any());
+    }
+
+    @Test
+    void testFindAllSummaries() {
+        // Prepare
+        List<DepartmentSummaryResponse> summaries = Collections.singletonList(new DepartmentSummaryResponse(1L, "Dep 1", 4L));
+
+        when(departmentRepository.findAllSummaries()).thenReturn(summaries);
+
+        // Execute
+        List<DepartmentSummaryResponse> result = departmentService.findAllSummaries();
 
-        when(departmentRepository.findAll(pageable)).thenReturn(departmentPage);
+        // Verify
+        assertSame(summaries, result);
+        verify(departmentRepository, times(1)).findAllSummaries();
+    }
+
+    @Test
+    void testStreamAllSummaries() {
+        // Prepare
+        DepartmentSummaryResponse summary = new DepartmentSummaryResponse(1L, "Dep 1", 4L);
+        when(departmentRepository.streamAllSummaries()).thenReturn(Stream.of(summary));
+        List<DepartmentSummaryResponse> result = new ArrayList<>();
 
         // Execute
-        Page<Department> result = departmentService.findAll(pageable);
+        departmentService.streamAllSummaries(result::add);
 
         // Verify
-        assertSame(departmentPage, result);
-        verify(departmentRepository, times(1)).findAll(pageable);
+        assertEquals(Collections.singletonList(summary), result);
+        verify(departmentRepository, never()).findAll();
     }
 
     @Test
@@ -88,12 +241,14 @@ class DepartmentServiceTest {
         when(departmentRepository.save(any())).thenReturn(department);
 
         // Execute
-        Department result = departmentService.save(departmentRequest);
+        DepartmentResponse result = departmentService.save(departmentRequest);
 
         // Verify
         assertNotNull(result);
         assertEquals(department.getName(), result.getName());
         verify(departmentRepository, times(1)).save(any());
+        verify(departmentEmployeeCountService, times(1)).initialize(department);
+        verify(outboxService, times(1)).append(AggregateType.DEPARTMENT, department.getId(), Operation.CREATED);
     }
 
     @Test
@@ -107,11 +262,12 @@ class DepartmentServiceTest {
         when(departmentRepository.findById(departmentId)).thenReturn(Optional.of(department));
 
         // Execute
-        Department result = departmentService.findById(departmentId);
+        DepartmentResponse result = departmentService.findById(departmentId);
 
         // Verify
         assertNotNull(result);
-        assertEquals(department, result);
+        assertEquals(department.getId(), result.getId());
+        assertEquals(department.getName(), result.getName());
         verify(departmentRepository, times(1)).findById(departmentId);
     }
 
@@ -131,17 +287,36 @@ class DepartmentServiceTest {
     void testDelete() {
         // Prepare
         Long departmentId = 1L;
-        Department department = new Department();
-        department.setId(departmentId);
-        department.setName("Dep 1");
 
-        when(departmentRepository.existsById(departmentId)).thenReturn(true);
+        when(employeeRepository.updateEmployeesWithDepartmentIdToNull(departmentId)).thenReturn(3);
+        when(departmentRepository.deleteByIds(Collections.singleton(departmentId))).thenReturn(1);
 
         // Execute
         departmentService.delete(departmentId);
 
         // Verify
-        verify(departmentRepository, times(1)).existsById(departmentId);
+        verify(employeeRepository, times(1)).updateEmployeesWithDepartmentIdToNull(departmentId);
+        verify(departmentRepository, times(1)).deleteByIds(Collections.singleton(departmentId));
+        verify(departmentRepository, never()).findById(any());
+        verify(departmentRepository, never()).deleteById(any());
+        verify(departmentEmployeeCountService, times(1)).remove(Collections.singleton(departmentId));
+        verify(outboxService, times(1)).append(AggregateType.DEPARTMENT, departmentId, Operation.EMPLOYEES_CHANGED);
+        verify(outboxService, times(1)).append(AggregateType.DEPARTMENT, departmentId, Operation.DELETED);
+    }
+
+    @Test
+    void testDeleteWithoutEmployees() {
+        // Prepare
+        Long departmentId = 1L;
+
+        when(departmentRepository.deleteByIds(Collections.singleton(departmentId))).thenReturn(1);
+
+        // Execute
+        departmentService.delete(departmentId);
+
+        // Verify
+        verify(outboxService, never()).append(AggregateType.DEPARTMENT, departmentId, Operation.EMPLOYEES_CHANGED);
+        verify(outboxService, times(1)).append(AggregateType.DEPARTMENT, departmentId, Operation.DELETED);
     }
 
     @Test
@@ -149,14 +324,86 @@ class DepartmentServiceTest {
         // Prepare
         Long departmentId = 1L;
 
-        when(departmentRepository.existsById(departmentId)).thenReturn(false);
+        when(departmentRepository.deleteByIds(Collections.singleton(departmentId))).thenReturn(0);
 
         // Execute and Verify
         assertThrows(ResourceNotFoundException.class, () -> departmentService.delete(departmentId));
-        verify(departmentRepository, times(1)).existsById(departmentId);
+        verify(departmentRepository, times(1)).deleteByIds(Collections.singleton(departmentId));
         verify(departmentRepository, never()).delete(any());
     }
 
+    @Test
+    void testDeleteAll() {
+        // Prepare
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 1500; id++) {
+            ids.add(id);
+        }
+        ids.add(1L);
+
+        when(departmentRepository.findExistingIds(anyCollection()))
+                .thenAnswer(invocation -> new ArrayList<>(invocation.<Collection<Long>>getArgument(0)));
+        when(employeeRepository.updateEmployeesWithDepartmentIdsToNull(anyCollection())).thenReturn(10, 0);
+        when(departmentRepository.deleteByIds(anyCollection())).thenReturn(1000, 500);
+
+        // Execute
+        DepartmentDeleteResponse result = departmentService.deleteAll(ids);
+
+        // Verify
+        assertEquals(1500, result.getDeletedDepartments());
+        assertEquals(10, result.getDetachedEmployees());
+        verify(employeeRepository, times(1)).updateEmployeesWithDepartmentIdsToNull(ids.subList(0, 1000));
+        verify(outboxService, times(1)).append(AggregateType.DEPARTMENT, ids.subList(0, 1000), Operation.EMPLOYEES_CHANGED);
+        verify(outboxService, times(1)).append(eq(AggregateType.DEPARTMENT), anyCollection(), eq(Operation.EMPLOYEES_CHANGED));
+        verify(departmentRepository, times(1)).deleteByIds(ids.subList(1000, 1500));
+        verify(departmentEmployeeCountService, times(2)).remove(anyCollection());
+        verify(departmentRepository, never()).findAllById(any());
+        verify(departmentRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void testDeleteAllAnnouncesOnlyExistingDepartments() {
+        // Prepare
+        when(departmentRepository.findExistingIds(Arrays.asList(1L, 2L, 3L))).thenReturn(Arrays.asList(1L, 3L));
+        when(employeeRepository.updateEmployeesWithDepartmentIdsToNull(Arrays.asList(1L, 3L))).thenReturn(4);
+        when(departmentRepository.deleteByIds(Arrays.asList(1L, 3L))).thenReturn(2);
+
+        // Execute
+        DepartmentDeleteResponse result = departmentService.deleteAll(Arrays.asList(1L, 2L, 3L));
+
+        // Verify
+        assertEquals(2, result.getDeletedDepartments());
+        assertEquals(4, result.getDetachedEmployees());
+        verify(departmentEmployeeCountService, times(1)).remove(Arrays.asList(1L, 3L));
+        verify(outboxService, times(1)).append(AggregateType.DEPARTMENT, Arrays.asList(1L, 3L), Operation.EMPLOYEES_CHANGED);
+        verify(outboxService, times(1)).append(AggregateType.DEPARTMENT, Arrays.asList(1L, 3L), Operation.DELETED);
+        verify(outboxService, times(2)).append(eq(AggregateType.DEPARTMENT), anyCollection(), any(Operation.class));
+    }
+
+    @Test
+    void testDeleteAllUnknownDepartments() {
+        // Prepare
+        when(departmentRepository.findExistingIds(Arrays.asList(8L, 9L))).thenReturn(Collections.emptyList());
+
+        // Execute
+        DepartmentDeleteResponse result = departmentService.deleteAll(Arrays.asList(8L, 9L));
+
+        // Verify
+        assertEquals(0, result.getDeletedDepartments());
+        verify(departmentRepository, never()).deleteByIds(anyCollection());
+        verifyNoInteractions(employeeRepository, departmentEmployeeCountService, outboxService);
+    }
+
+    @Test
+    void testDeleteAllEmpty() {
+        // Execute
+        DepartmentDeleteResponse result = departmentService.deleteAll(Collections.emptyList());
+
+        // Verify
+        assertEquals(0, result.getDeletedDepartments());
+        verifyNoInteractions(employeeRepository, departmentRepository, departmentEmployeeCountService);
+    }
+
     @Test
     void testUpdateDepartment() {
         // Prepare
@@ -170,17 +417,40 @@ class DepartmentServiceTest {
         department.setName("Dep 1");
 
         when(departmentRepository.findById(departmentId)).thenReturn(Optional.of(department));
-        when(departmentRepository.save(department)).thenReturn(department);
+        when(departmentRepository.saveAndFlush(department)).thenReturn(department);
 
         // Execute
-        Department result = departmentService.updateDepartment(departmentRequest);
+        DepartmentResponse result = departmentService.updateDepartment(departmentRequest);
 
         // Verify
         assertNotNull(result);
         assertEquals(department.getId(), result.getId());
         assertEquals(departmentRequest.getName(), result.getName());
         verify(departmentRepository, times(1)).findById(departmentId);
-        verify(departmentRepository, times(1)).save(department);
+        verify(departmentRepository, times(1)).saveAndFlush(department);
+        verify(optimisticLockRetry, times(1)).execute(eq("department.update"), any());
+    }
+
+    @Test
+    void testUpdateDepartmentWithStaleVersion() {
+        // Prepare
+        long departmentId = 1L;
+        DepartmentRequest departmentRequest = new DepartmentRequest();
+        departmentRequest.setId(departmentId);
+        departmentRequest.setName("Updated Department");
+        departmentRequest.setVersion(1L);
+
+        Department department = new Department();
+        department.setId(departmentId);
+        department.setName("Dep 1");
+        department.setVersion(2L);
+
+        when(departmentRepository.findById(departmentId)).thenReturn(Optional.of(department));
+
+        // Execute and Verify
+        assertThrows(ConflictException.class, () -> departmentService.updateDepartment(departmentRequest));
+        assertEquals("Dep 1", department.getName());
+        verify(departmentRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -196,7 +466,7 @@ class DepartmentServiceTest {
         // Execute and Verify
         assertThrows(ResourceNotFoundException.class, () -> departmentService.updateDepartment(departmentRequest));
         verify(departmentRepository, times(1)).findById(departmentId);
-        verify(departmentRepository, never()).save(any());
+        verify(departmentRepository, never()).saveAndFlush(any());
     }
 }
 
@@ -0,0 +1,122 @@
+package com.foodtech.exercise.service;
+
+import com.foodtech.exercise.dto.request.EmployeeRequest;
+import com.foodtech.exercise.model.ChangeEvent.AggregateType;
+import com.foodtech.exercise.model.ChangeEvent.Operation;
+import com.foodtech.exercise.model.Department;
+import com.foodtech.exercise.model.Employee;
+import com.foodtech.exercise.repository.ChangeEventRepository;
+import com.foodtech.exercise.repository.DepartmentRepository;
+import com.foodtech.exercise.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs concurrent updates of the same employee through the service against the real entities, so that the
+ * {@code @Version} check of Hibernate and the row locks of the database decide who wins.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:concurrency;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "app.optimistic-lock.max-attempts=100",
+        "app.optimistic-lock.initial-backoff-ms=1",
+        "app.optimistic-lock.max-backoff-ms=10"})
+@ActiveProfiles("h2")
+class EmployeeServiceConcurrencyTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private ChangeEventRepository changeEventRepository;
+
+    private Department department;
+    private Employee employee;
+
+    @BeforeEach
+    void setUp() {
+        department = new Department();
+        department.setName("Dep 1");
+        department = departmentRepository.save(department);
+        employee = new Employee();
+        employee.setFirstName("First");
+        employee.setLastName("Last");
+        employee.setDepartment(department);
+        employee = employeeRepository.save(employee);
+    }
+
+    @Test
+    void testConcurrentUpdatesAreSerializedByVersion() throws Exception {
+        // Prepare
+        int writers = 8;
+        int updatesPerWriter = 10;
+        Set<Long> committedVersions = ConcurrentHashMap.newKeySet();
+        Set<String> writtenNames = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Execute
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int u = 0; u < updatesPerWriter; u++) {
+                    EmployeeRequest request = new EmployeeRequest();
+                    request.setId(employee.getId());
+                    request.setFirstName("Writer " + writer);
+                    request.setLastName("Update " + u);
+                    request.setDepartmentId(department.getId());
+                    writtenNames.add(request.getFirstName() + " " + request.getLastName());
+                    committedVersions.add(employeeService.updateEmployee(request).getVersion());
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Verify
+        int updates = writers * updatesPerWriter;
+        Employee updated = employeeRepository.findById(employee.getId()).orElseThrow(AssertionError::new);
+        assertEquals(employee.getVersion() + updates, updated.getVersion());
+        assertTrue(writtenNames.contains(updated.getFirstName() + " " + updated.getLastName()));
+        Set<Long> expectedVersions = new HashSet<>();
+        for (long version = employee.getVersion() + 1; version <= employee.getVersion() + updates; version++) {
+            expectedVersions.add(version);
+        }
+        assertEquals(expectedVersions, committedVersions, "every update must commit exactly one version");
+        long announced = changeEventRepository.findAll().stream()
+                .filter(event -> event.getAggregateType() == AggregateType.EMPLOYEE
+                        && event.getAggregateId() == employee.getId()
+                        && event.getOperation() == Operation.UPDATED)
+                .count();
+        assertEquals(updates, announced);
+    }
+}
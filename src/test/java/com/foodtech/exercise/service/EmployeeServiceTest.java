@@ -1,22 +1,40 @@
 package com.foodtech.exercise.service;
 
+import com.foodtech.exercise.dto.request.EmployeeMoveRequest;
+import com.foodtech.exercise.dto.request.EmployeePatchRequest;
 import com.foodtech.exercise.dto.request.EmployeeRequest;
+import com.foodtech.exercise.dto.response.EmployeePatchResponse;
+import com.foodtech.exercise.dto.response.EmployeeResponse;
+import com.foodtech.exercise.dto.response.KeysetPage;
+import com.foodtech.exercise.exception.BadRequestException;
+import com.foodtech.exercise.exception.ConflictException;
 import com.foodtech.exercise.exception.ResourceNotFoundException;
+import com.foodtech.exercise.model.ChangeEvent.AggregateType;
+import com.foodtech.exercise.model.ChangeEvent.Operation;
 import com.foodtech.exercise.model.Department;
 import com.foodtech.exercise.model.Employee;
 import com.foodtech.exercise.repository.DepartmentRepository;
 import com.foodtech.exercise.repository.EmployeeRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,6 +47,15 @@ class EmployeeServiceTest {
     @Mock
     private DepartmentRepository departmentRepository;
 
+    @Mock
+    private DepartmentEmployeeCountService departmentEmployeeCountService;
+
+    @Mock
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Mock
+    private OutboxService outboxService;
+
     @InjectMocks
     private EmployeeService employeeService;
 
@@ -38,6 +65,8 @@ class EmployeeServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(optimisticLockRetry.execute(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
         em1 = new Employee();
         em1.setId(1L);
         em1.setFirstName("John");
@@ -86,6 +115,175 @@ class EmployeeServiceTest {
         verify(employeeRepository, times(1)).findAll(pageable);
     }
 
+    @Test
+    void testStreamAll() {
+        // Prepare
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<EmployeeResponse> rows = Stream.of(EmployeeResponse.of(em1), EmployeeResponse.of(em2))
+                .onClose(() -> closed.set(true));
+        when(employeeRepository.streamAll()).thenReturn(rows);
+        List<EmployeeResponse> result = new ArrayList<>();
+
+        // Execute
+        employeeService.streamAll(result::add);
+
+        // Verify
+        assertEquals(2, result.size());
+        assertEquals(em1.getFirstName(), result.get(0).getFirstName());
+        assertEquals(em2.getFirstName(), result.get(1).getFirstName());
+        assertTrue(closed.get());
+        verify(employeeRepository, never()).findAll();
+    }
+
+    @Test
+    void testFindAllWithCursor() {
+        // Prepare
+        when(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, KeysetCursor.limit(1)))
+                .thenReturn(Arrays.asList(em1, em2));
+
+        // Execute
+        KeysetPage<Employee> result = employeeService.findAll(null, 1, null);
+
+        // Verify
+        assertEquals(1, result.getContent().size());
+        assertEquals(em1, result.getContent().get(0));
+        assertEquals(em1.getId(), KeysetCursor.decode(result.getNextCursor()));
+        verify(employeeRepository, never()).findAll(any(Pageable.class));
+        verify(employeeRepository, never()).count();
+    }
+
+    @Test
+    void testFindAllWithCursorLastPage() {
+        // Prepare
+        Long departmentId = 3L;
+        String cursor = KeysetCursor.encode(em1.getId());
+        when(employeeRepository.findByDepartmentIdAndIdGreaterThanOrderByIdAsc(departmentId, em1.getId(), KeysetCursor.limit(2)))
+                .thenReturn(Arrays.asList(em2));
+
+        // Execute
+        KeysetPage<Employee> result = employeeService.findAll(cursor, 2, departmentId);
+
+        // Verify
+        assertEquals(1, result.getContent().size());
+        assertNull(result.getNextCursor());
+        verify(employeeRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    void testFindAllWithInvalidCursor() {
+        // Execute and Verify
+        assertThrows(BadRequestException.class, () -> employeeService.findAll("not a cursor!", 10, null));
+        assertThrows(BadRequestException.class, () -> employeeService.findAll(null, 0, null));
+    }
+
+    @Test
+    void testFindByDepartmentId() {
+        // Prepare
+        Long departmentId = 3L;
+        when(employeeRepository.findResponsesByDepartmentId(departmentId, 0L, KeysetCursor.limit(1)))
+                .thenReturn(Arrays.asList(EmployeeResponse.of(em1), EmployeeResponse.of(em2)));
+
+        // Execute
+        KeysetPage<EmployeeResponse> result = employeeService.findByDepartmentId(departmentId, null, 1);
+
+        // Verify
+        assertEquals(1, result.getContent().size());
+        assertEquals(em1.getId(), result.getContent().get(0).getId());
+        assertEquals(em1.getId(), KeysetCursor.decode(result.getNextCursor()));
+        verify(departmentRepository, never()).findById(any());
+        verify(departmentRepository, never()).existsById(any());
+    }
+
+    @Test
+    void testFindByNonExistingDepartmentId() {
+        // Prepare
+        Long departmentId = 3L;
+        when(employeeRepository.findResponsesByDepartmentId(departmentId, 0L, KeysetCursor.limit(20)))
+                .thenReturn(Collections.emptyList());
+        when(departmentRepository.existsById(departmentId)).thenReturn(false);
+
+        // Execute and Verify
+        assertThrows(ResourceNotFoundException.class, () -> employeeService.findByDepartmentId(departmentId, null, 20));
+        verify(departmentRepository, never()).findById(any());
+    }
+
+    @Test
+    void testStreamByDepartmentId() {
+        // Prepare
+        Long departmentId = 3L;
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<EmployeeResponse> rows = Stream.of(EmployeeResponse.of(em1), EmployeeResponse.of(em2))
+                .onClose(() -> closed.set(true));
+        when(employeeRepository.streamByDepartmentId(departmentId)).thenReturn(rows);
+        List<EmployeeResponse> result = new ArrayList<>();
+
+        // Execute
+        employeeService.streamByDepartmentId(departmentId, result::add);
+
+        // Verify
+        assertEquals(2, result.size());
+        assertTrue(closed.get());
+        verify(departmentRepository, never()).findById(any());
+    }
+
+    @Test
+    void testSearchByPrefixEscapesWildcards() {
+        // Prepare
+        Employee employee = new Employee();
+        employee.setId(1L);
+        employee.setFirstName("John");
+        employee.setLastName("Do_e");
+        when(employeeRepository.searchByNamePrefix("do\\_e\\%%", 0L, 10))
+                .thenReturn(Collections.singletonList(employee));
+
+        // Execute
+        List<EmployeeResponse> result = employeeService.search(" Do_e% ", false, null, 0, 10);
+
+        // Verify
+        assertEquals(1, result.size());
+        assertEquals("Do_e", result.get(0).getLastName());
+        verify(employeeRepository, never()).searchBySimilarName(any(), any());
+    }
+
+    @Test
+    void testSearchFuzzyInDepartment() {
+        // Prepare
+        Long departmentId = 1L;
+        when(employeeRepository.searchBySimilarNameInDepartment("jon doe", departmentId, PageRequest.of(2, 5)))
+                .thenReturn(Collections.emptyList());
+
+        // Execute
+        List<EmployeeResponse> result = employeeService.search("Jon Doe", true, departmentId, 2, 5);
+
+        // Verify
+        assertTrue(result.isEmpty());
+        verify(employeeRepository, times(1)).searchBySimilarNameInDepartment("jon doe", departmentId, PageRequest.of(2, 5));
+        verify(employeeRepository, never()).searchByNamePrefixInDepartment(any(), any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void testSearchWithInvalidArguments() {
+        // Execute and Verify
+        assertThrows(BadRequestException.class, () -> employeeService.search("  ", false, null, 0, 10));
+        assertThrows(BadRequestException.class, () -> employeeService.search("doe", false, null, -1, 10));
+        assertThrows(BadRequestException.class, () -> employeeService.search("doe", false, null, 0, 0));
+    }
+
+    @Test
+    void testSearchByPrefixInDepartmentPassesOffset() {
+        // Prepare
+        Long departmentId = 1L;
+        when(employeeRepository.searchByNamePrefixInDepartment("doe%", departmentId, 15L, 5))
+                .thenReturn(Collections.emptyList());
+
+        // Execute
+        List<EmployeeResponse> result = employeeService.search("Doe", false, departmentId, 3, 5);
+
+        // Verify
+        assertTrue(result.isEmpty());
+        verify(employeeRepository, times(1)).searchByNamePrefixInDepartment("doe%", departmentId, 15L, 5);
+    }
+
     @Test
     void testSave() {
         // Prepare
@@ -102,8 +300,8 @@ class EmployeeServiceTest {
         employee.setLastName(employeeRequest.getLastName());
         employee.setDepartment(department);
 
-        when(departmentRepository.findById(departmentId)).thenReturn(Optional.of(department));
-        when(employeeRepository.save(employee)).thenReturn(employee);
+        when(departmentRepository.getById(departmentId)).thenReturn(department);
+        when(employeeRepository.saveAndFlush(employee)).thenReturn(employee);
 
         // Execute
         Employee result = employeeService.save(departmentId, employeeRequest);
@@ -113,8 +311,11 @@ class EmployeeServiceTest {
         assertEquals(employee.getFirstName(), result.getFirstName());
         assertEquals(employee.getLastName(), result.getLastName());
         assertEquals(employee.getDepartment(), result.getDepartment());
-        verify(departmentRepository, times(1)).findById(departmentId);
-        verify(employeeRepository, times(1)).save(employee);
+        verify(departmentRepository, times(1)).getById(departmentId);
+        verify(departmentRepository, never()).findById(any());
+        verify(employeeRepository, times(1)).saveAndFlush(employee);
+        verify(departmentEmployeeCountService, times(1)).increment(departmentId, 1);
+        verify(outboxService, times(1)).append(AggregateType.EMPLOYEE, employee.getId(), Operation.CREATED);
     }
 
     @Test
@@ -125,12 +326,73 @@ class EmployeeServiceTest {
         employeeRequest.setFirstName("John");
         employeeRequest.setLastName("Doe");
 
-        when(departmentRepository.findById(departmentId)).thenReturn(Optional.empty());
+        when(departmentRepository.getById(departmentId)).thenReturn(new Department());
+        when(employeeRepository.saveAndFlush(any())).thenThrow(departmentForeignKeyViolation());
+
+        // Execute and Verify
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.save(departmentId, employeeRequest));
+        assertEquals("Department does not exist with ID: " + departmentId, exception.getMessage());
+        verify(departmentRepository, times(1)).getById(departmentId);
+    }
+
+    @Test
+    void testSaveOtherConstraintViolation() {
+        // Prepare
+        Long departmentId = 1L;
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("not null",
+                new ConstraintViolationException("not null", null, "employee_first_name_not_null"));
+
+        when(departmentRepository.getById(departmentId)).thenReturn(new Department());
+        when(employeeRepository.saveAndFlush(any())).thenThrow(violation);
 
         // Execute and Verify
-        assertThrows(ResourceNotFoundException.class, () -> employeeService.save(departmentId, employeeRequest));
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> employeeService.save(departmentId, new EmployeeRequest())));
+    }
+
+    @Test
+    void testSaveAll() {
+        // Prepare
+        Long departmentId = 1L;
+        Department department = new Department();
+        department.setId(departmentId);
+
+        EmployeeRequest first = new EmployeeRequest();
+        first.setFirstName("John");
+        first.setLastName("Doe");
+        EmployeeRequest second = new EmployeeRequest();
+        second.setFirstName("Jane");
+        second.setLastName("Smith");
+
+        when(departmentRepository.findById(departmentId)).thenReturn(Optional.of(department));
+        when(employeeRepository.persistInBatches(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Execute
+        List<Employee> result = employeeService.saveAll(departmentId, Arrays.asList(first, second));
+
+        // Verify
+        assertEquals(2, result.size());
+        assertEquals("John", result.get(0).getFirstName());
+        assertEquals("Smith", result.get(1).getLastName());
+        result.forEach(employee -> assertSame(department, employee.getDepartment()));
         verify(departmentRepository, times(1)).findById(departmentId);
+        verify(employeeRepository, times(1)).persistInBatches(anyList());
         verify(employeeRepository, never()).save(any());
+        verify(departmentEmployeeCountService, times(1)).increment(departmentId, 2);
+    }
+
+    @Test
+    void testSaveAllNonExistingDepartment() {
+        // Prepare
+        Long departmentId = 1L;
+
+        when(departmentRepository.findById(departmentId)).thenReturn(Optional.empty());
+
+        // Execute and Verify
+        assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.saveAll(departmentId, Arrays.asList(new EmployeeRequest())));
+        verify(employeeRepository, never()).persistInBatches(anyList());
     }
 
     @Test
@@ -146,6 +408,7 @@ class EmployeeServiceTest {
         // Verify
         verify(employeeRepository, times(1)).findById(employeeId);
         verify(employeeRepository, times(1)).delete(em1);
+        verify(departmentEmployeeCountService, times(1)).increment(em1.getDepartment().getId(), -1);
     }
 
     @Test
@@ -205,8 +468,8 @@ class EmployeeServiceTest {
 
 
         when(employeeRepository.findById(employeeId)).thenReturn(Optional.of(em1));
-        when(departmentRepository.findById(departmentId)).thenReturn(Optional.of(department));
-        when(employeeRepository.save(em1)).thenReturn(em1);
+        when(departmentRepository.getById(departmentId)).thenReturn(department);
+        when(employeeRepository.saveAndFlush(em1)).thenReturn(em1);
 
         // Execute
         Employee result = employeeService.updateEmployee(employeeRequest);
@@ -216,9 +479,13 @@ class EmployeeServiceTest {
         assertEquals(em1.getFirstName(), result.getFirstName());
         assertEquals(em1.getLastName(), result.getLastName());
         assertEquals(em1.getDepartment(), result.getDepartment());
+        assertSame(department, result.getDepartment());
         verify(employeeRepository, times(1)).findById(employeeId);
-        verify(departmentRepository, times(1)).findById(departmentId);
-        verify(employeeRepository, times(1)).save(em1);
+        verify(departmentRepository, times(1)).getById(departmentId);
+        verify(departmentRepository, never()).findById(any());
+        verify(employeeRepository, times(1)).saveAndFlush(em1);
+        verify(departmentEmployeeCountService, times(1)).increment(0L, -1);
+        verify(departmentEmployeeCountService, times(1)).increment(departmentId, 1);
     }
 
     @Test
@@ -236,8 +503,28 @@ class EmployeeServiceTest {
         // Execute and Verify
         assertThrows(ResourceNotFoundException.class, () -> employeeService.updateEmployee(employeeRequest));
         verify(employeeRepository, times(1)).findById(employeeId);
-        verify(departmentRepository, never()).findById(any());
-        verify(employeeRepository, never()).save(any());
+        verify(departmentRepository, never()).getById(any());
+        verify(employeeRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testUpdateEmployeeWithStaleVersion() {
+        // Prepare
+        Long employeeId = 1L;
+        EmployeeRequest employeeRequest = new EmployeeRequest();
+        employeeRequest.setId(employeeId);
+        employeeRequest.setFirstName("John");
+        employeeRequest.setLastName("Doe");
+        employeeRequest.setDepartmentId(2L);
+        employeeRequest.setVersion(em1.getVersion() + 1);
+
+        when(employeeRepository.findById(employeeId)).thenReturn(Optional.of(em1));
+
+        // Execute and Verify
+        assertThrows(ConflictException.class, () -> employeeService.updateEmployee(employeeRequest));
+        verify(optimisticLockRetry, times(1)).execute(eq("employee.update"), any());
+        verify(employeeRepository, never()).saveAndFlush(any());
+        verify(departmentEmployeeCountService, never()).increment(any(), anyLong());
     }
 
     @Test
@@ -253,13 +540,295 @@ class EmployeeServiceTest {
 
 
         when(employeeRepository.findById(employeeId)).thenReturn(Optional.of(em1));
-        when(departmentRepository.findById(departmentId)).thenReturn(Optional.empty());
+        when(departmentRepository.getById(departmentId)).thenReturn(new Department());
+        when(employeeRepository.saveAndFlush(em1)).thenThrow(departmentForeignKeyViolation());
 
         // Execute and Verify
-        assertThrows(ResourceNotFoundException.class, () -> employeeService.updateEmployee(employeeRequest));
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.updateEmployee(employeeRequest));
+        assertEquals("Department does not exist with ID: " + departmentId, exception.getMessage());
         verify(employeeRepository, times(1)).findById(employeeId);
-        verify(departmentRepository, times(1)).findById(departmentId);
+        verify(departmentRepository, times(1)).getById(departmentId);
+    }
+
+    private static DataIntegrityViolationException departmentForeignKeyViolation() {
+        return new DataIntegrityViolationException("foreign key",
+                new ConstraintViolationException("foreign key", null, "fk_employee_department"));
+    }
+
+    @Test
+    void testPatchGroupsUnversionedPatches() {
+        // Prepare
+        EmployeePatchRequest first = patch(1L, null, "Doe", null);
+        EmployeePatchRequest second = patch(2L, null, "Doe", null);
+        EmployeePatchRequest third = patch(3L, null, null, 5L);
+
+        when(employeeRepository.findDepartmentIdsForUpdate(Arrays.asList(1L, 2L)))
+                .thenReturn(Arrays.asList(new Object[]{1L, 5L}, new Object[]{2L, 5L}));
+        when(employeeRepository.findDepartmentIdsForUpdate(Collections.singletonList(3L)))
+                .thenReturn(Collections.singletonList(new Object[]{3L, 5L}));
+        when(employeeRepository.patch(Arrays.asList(1L, 2L), null, "Doe", null, null)).thenReturn(2);
+        when(employeeRepository.patch(Collections.singletonList(3L), null, null, null, 5L)).thenReturn(1);
+
+        // Execute
+        EmployeePatchResponse result = employeeService.patch(Arrays.asList(first, second, third));
+
+        // Verify
+        assertEquals(3, result.getRequested());
+        assertEquals(3, result.getUpdated());
+        assertTrue(result.getConflicts().isEmpty());
+        verify(employeeRepository, times(2)).patch(anyList(), any(), any(), any(), any());
+        verify(employeeRepository, never()).findById(any());
         verify(employeeRepository, never()).save(any());
     }
-}
 
+    @Test
+    void testPatchMovesDepartmentCounters() {
+        // Prepare
+        List<Object[]> rows = Arrays.asList(new Object[]{1L, 4L}, new Object[]{2L, 4L}, new Object[]{3L, null}, new Object[]{4L, 5L});
+
+        when(employeeRepository.findDepartmentIdsForUpdate(Arrays.asList(1L, 2L, 3L, 4L))).thenReturn(rows);
+        when(employeeRepository.patch(Arrays.asList(1L, 2L, 3L, 4L), null, null, null, 5L)).thenReturn(4);
+
+        // Execute
+        employeeService.patch(Arrays.asList(patch(1L, null, null, 5L), patch(2L, null, null, 5L), patch(3L, null, null, 5L),
+                patch(4L, null, null, 5L)));
+
+        // Verify
+        verify(departmentEmployeeCountService, times(1)).increment(4L, -2);
+        verify(departmentEmployeeCountService, times(1)).increment(5L, 3);
+        verify(outboxService, times(1)).append(AggregateType.DEPARTMENT, new LinkedHashSet<>(Arrays.asList(4L, 5L)),
+                Operation.EMPLOYEES_CHANGED);
+    }
+
+    @Test
+    void testPatchAnnouncesOnlyExistingEmployees() {
+        // Prepare
+        when(employeeRepository.findDepartmentIdsForUpdate(Arrays.asList(1L, 2L)))
+                .thenReturn(Collections.singletonList(new Object[]{1L, 5L}));
+        when(employeeRepository.patch(Arrays.asList(1L, 2L), null, "Doe", null, null)).thenReturn(1);
+
+        // Execute
+        EmployeePatchResponse result = employeeService.patch(Arrays.asList(patch(1L, null, "Doe", null), patch(2L, null, "Doe", null)));
+
+        // Verify
+        assertEquals(1, result.getUpdated());
+        verify(outboxService, times(1)).append(AggregateType.EMPLOYEE, Collections.singleton(1L), Operation.UPDATED);
+        verify(outboxService, never()).append(eq(AggregateType.DEPARTMENT), anyCollection(), any());
+    }
+
+    @Test
+    void testPatchVersionConflict() {
+        // Prepare
+        EmployeePatchRequest stale = patch(1L, 3L, "John", null);
+        EmployeePatchRequest current = patch(2L, 7L, "Jane", null);
+
+        when(employeeRepository.patch(Collections.singletonList(1L), 3L, "John", null, null)).thenReturn(0);
+        when(employeeRepository.patch(Collections.singletonList(2L), 7L, "Jane", null, null)).thenReturn(1);
+
+        // Execute
+        EmployeePatchResponse result = employeeService.patch(Arrays.asList(stale, current));
+
+        // Verify
+        assertEquals(1, result.getUpdated());
+        assertEquals(Collections.singletonList(1L), result.getConflicts());
+    }
+
+    @Test
+    void testPatchWithoutChanges() {
+        // Execute and Verify
+        assertThrows(BadRequestException.class,
+                () -> employeeService.patch(Collections.singletonList(patch(1L, null, null, null))));
+        verify(employeeRepository, never()).patch(anyList(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testPatchNonExistingDepartment() {
+        // Prepare
+        when(employeeRepository.patch(anyList(), any(), any(), any(), eq(9L))).thenThrow(departmentForeignKeyViolation());
+
+        // Execute and Verify
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.patch(Collections.singletonList(patch(1L, null, null, 9L))));
+        assertEquals("Department does not exist with ID: 9", exception.getMessage());
+    }
+
+    @Test
+    void testPatchSingleEmployeeConflict() {
+        // Prepare
+        when(employeeRepository.patch(anyList(), any(), any(), any(), any())).thenReturn(0);
+        when(employeeRepository.existsById(1L)).thenReturn(true);
+
+        // Execute and Verify
+        assertThrows(ConflictException.class, () -> employeeService.patch(patch(1L, 3L, "John", null)));
+    }
+
+    @Test
+    void testPatchSingleNonExistingEmployee() {
+        // Prepare
+        when(employeeRepository.patch(anyList(), any(), any(), any(), any())).thenReturn(0);
+        when(employeeRepository.existsById(1L)).thenReturn(false);
+
+        // Execute and Verify
+        assertThrows(ResourceNotFoundException.class, () -> employeeService.patch(patch(1L, null, "John", null)));
+    }
+
+    @Test
+    void testMoveAllEmployees() {
+        // Prepare
+        Long fromId = 1L;
+        long toId = 2L;
+        EmployeeMoveRequest moveRequest = new EmployeeMoveRequest();
+        moveRequest.setTargetDepartmentId(toId);
+        Department target = new Department();
+        target.setId(toId);
+
+        when(departmentRepository.findExistingIds(Arrays.asList(fromId, toId))).thenReturn(Arrays.asList(fromId, toId));
+        when(departmentRepository.getById(toId)).thenReturn(target);
+        when(employeeRepository.moveEmployees(eq(fromId), eq(target), any())).thenReturn(100000);
+
+        // Execute
+        int result = employeeService.move(fromId, moveRequest);
+
+        // Verify
+        assertEquals(100000, result);
+        verify(employeeRepository, times(1)).moveEmployees(eq(fromId), eq(target), any());
+        verify(employeeRepository, never()).moveEmployeesByIdIn(any(), any(), any(), any());
+        verify(employeeRepository, never()).findById(any());
+        verify(departmentEmployeeCountService, times(1)).increment(fromId, -100000);
+        verify(departmentEmployeeCountService, times(1)).increment(toId, 100000);
+    }
+
+    @Test
+    void testMoveSelectedEmployees() {
+        // Prepare
+        Long fromId = 1L;
+        long toId = 2L;
+        EmployeeMoveRequest moveRequest = new EmployeeMoveRequest();
+        moveRequest.setTargetDepartmentId(toId);
+        moveRequest.setEmployeeIds(Arrays.asList(em1.getId(), em2.getId(), em1.getId()));
+        Department target = new Department();
+        target.setId(toId);
+
+        when(departmentRepository.findExistingIds(Arrays.asList(fromId, toId))).thenReturn(Arrays.asList(fromId, toId));
+        when(departmentRepository.getById(toId)).thenReturn(target);
+        when(employeeRepository.moveEmployeesByIdIn(eq(fromId), any(), eq(target), any())).thenReturn(1);
+
+        // Execute
+        int result = employeeService.move(fromId, moveRequest);
+
+        // Verify
+        assertEquals(1, result);
+        verify(employeeRepository, times(1)).moveEmployeesByIdIn(eq(fromId), argThat(ids -> ids.size() == 2), eq(target), any());
+        verify(employeeRepository, never()).moveEmployees(any(), any(), any());
+        verify(departmentEmployeeCountService, times(1)).increment(fromId, -1);
+        verify(departmentEmployeeCountService, times(1)).increment(toId, 1);
+    }
+
+    @Test
+    void testMoveWithInvalidDepartments() {
+        // Prepare
+        Long fromId = 1L;
+        long toId = 2L;
+        EmployeeMoveRequest moveRequest = new EmployeeMoveRequest();
+        moveRequest.setTargetDepartmentId(toId);
+        when(departmentRepository.findExistingIds(Arrays.asList(fromId, toId))).thenReturn(Collections.singletonList(fromId));
+
+        // Execute and Verify
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.move(fromId, moveRequest));
+        assertEquals("Department does not exist with ID: " + toId, exception.getMessage());
+        assertThrows(BadRequestException.class, () -> employeeService.move(toId, moveRequest));
+        verify(employeeRepository, never()).moveEmployees(any(), any(), any());
+        verify(departmentEmployeeCountService, never()).increment(any(), anyLong());
+    }
+
+    @Test
+    void testSync() {
+        // Prepare
+        EmployeeRequest employeeRequest = new EmployeeRequest();
+        employeeRequest.setFirstName("John");
+        employeeRequest.setLastName("Doe");
+        employeeRequest.setDepartmentId(2L);
+        List<EmployeeRequest> employees = Collections.singletonList(employeeRequest);
+
+        when(departmentRepository.findExistingIds(Collections.singleton(2L))).thenReturn(Collections.singletonList(2L));
+
+        // Execute
+        int result = employeeService.sync(employees);
+
+        // Verify
+        assertEquals(1, result);
+        verify(employeeRepository, times(1)).upsert(employees);
+        verify(employeeRepository, never()).findDepartmentIdsForUpdate(anyCollection());
+        verify(departmentEmployeeCountService, times(1)).increment(2L, 1L);
+        verify(departmentEmployeeCountService, never()).reconcile();
+    }
+
+    @Test
+    void testSyncMovesExistingEmployees() {
+        // Prepare
+        EmployeeRequest moved = new EmployeeRequest();
+        moved.setId(5L);
+        moved.setDepartmentId(2L);
+        EmployeeRequest unchanged = new EmployeeRequest();
+        unchanged.setId(6L);
+        unchanged.setDepartmentId(2L);
+        EmployeeRequest created = new EmployeeRequest();
+        created.setDepartmentId(2L);
+        List<EmployeeRequest> employees = Arrays.asList(moved, unchanged, created);
+
+        when(departmentRepository.findExistingIds(Collections.singleton(2L))).thenReturn(Collections.singletonList(2L));
+        when(employeeRepository.findDepartmentIdsForUpdate(Arrays.asList(5L, 6L)))
+                .thenReturn(Arrays.asList(new Object[]{5L, 1L}, new Object[]{6L, 2L}));
+
+        // Execute
+        employeeService.sync(employees);
+
+        // Verify
+        verify(departmentEmployeeCountService, times(1)).increment(1L, -1L);
+        verify(departmentEmployeeCountService, times(1)).increment(2L, 2L);
+        verify(departmentEmployeeCountService, never()).reconcile();
+        verify(outboxService, times(1)).append(AggregateType.EMPLOYEE, new LinkedHashSet<>(Arrays.asList(5L, 6L)), Operation.UPDATED);
+    }
+
+    @Test
+    void testSyncNonExistingEmployee() {
+        // Prepare
+        EmployeeRequest employeeRequest = new EmployeeRequest();
+        employeeRequest.setId(7L);
+        employeeRequest.setDepartmentId(2L);
+
+        when(departmentRepository.findExistingIds(Collections.singleton(2L))).thenReturn(Collections.singletonList(2L));
+        when(employeeRepository.findDepartmentIdsForUpdate(Collections.singletonList(7L))).thenReturn(Collections.emptyList());
+
+        // Execute and Verify
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.sync(Collections.singletonList(employeeRequest)));
+        assertEquals("Employee does not exist with ID: 7", exception.getMessage());
+        verify(employeeRepository, never()).upsert(anyList());
+        verify(departmentEmployeeCountService, never()).increment(any(), anyLong());
+    }
+
+    @Test
+    void testSyncNonExistingDepartment() {
+        // Prepare
+        EmployeeRequest employeeRequest = new EmployeeRequest();
+        employeeRequest.setDepartmentId(2L);
+
+        when(departmentRepository.findExistingIds(anyCollection())).thenReturn(Collections.emptyList());
+
+        // Execute and Verify
+        assertThrows(ResourceNotFoundException.class, () -> employeeService.sync(Collections.singletonList(employeeRequest)));
+        verify(employeeRepository, never()).upsert(anyList());
+    }
+
+    private static EmployeePatchRequest patch(long id, Long version, String firstName, Long departmentId) {
+        EmployeePatchRequest patch = new EmployeePatchRequest();
+        patch.setId(id);
+        patch.setVersion(version);
+        patch.setFirstName(firstName);
+        patch.setDepartmentId(departmentId);
+        return patch;
+    }
+}
@@ -0,0 +1,171 @@
+package com.foodtech.exercise.service;
+
+import com.foodtech.exercise.dto.request.EmployeeRequest;
+import com.foodtech.exercise.exception.ResourceNotFoundException;
+import com.foodtech.exercise.exception.ServiceUnavailableException;
+import com.foodtech.exercise.model.Employee;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmployeeWriteBehindQueueTest {
+
+    private EmployeeService employeeService;
+    private EmployeeWriteBehindQueue writeBehindQueue;
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    @BeforeEach
+    void setUp() {
+        employeeService = mock(EmployeeService.class);
+        when(employeeService.saveAll(anyLong(), anyList())).thenAnswer(invocation -> {
+            List<EmployeeRequest> requests = invocation.getArgument(1);
+            return requests.stream().map(request -> {
+                Employee employee = new Employee();
+                employee.setId(nextId.getAndIncrement());
+                employee.setFirstName(request.getFirstName());
+                return employee;
+            }).collect(Collectors.toList());
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writeBehindQueue != null) {
+            writeBehindQueue.destroy();
+        }
+    }
+
+    @Test
+    void testCreatesAreSavedInBatchesPerDepartment() throws Exception {
+        // Prepare
+        writeBehindQueue = new EmployeeWriteBehindQueue(employeeService, new SimpleMeterRegistry(), true, 100, 3, 1000, 100);
+
+        // Execute
+        CompletableFuture<Employee> first = writeBehindQueue.save(1L, request("First"));
+        CompletableFuture<Employee> second = writeBehindQueue.save(2L, request("Second"));
+        CompletableFuture<Employee> third = writeBehindQueue.save(1L, request("Third"));
+        writeBehindQueue.start();
+
+        // Verify
+        assertEquals("First", first.get(5, TimeUnit.SECONDS).getFirstName());
+        assertEquals("Second", second.get(5, TimeUnit.SECONDS).getFirstName());
+        assertEquals("Third", third.get(5, TimeUnit.SECONDS).getFirstName());
+        assertNotEquals(first.get().getId(), third.get().getId());
+        verify(employeeService, times(1)).saveAll(eq(1L), argThat(requests -> requests.size() == 2));
+        verify(employeeService, times(1)).saveAll(eq(2L), argThat(requests -> requests.size() == 1));
+        verify(employeeService, never()).save(any(), any());
+    }
+
+    @Test
+    void testPartialBatchIsFlushedAfterMaxDelay() throws Exception {
+        // Prepare
+        writeBehindQueue = new EmployeeWriteBehindQueue(employeeService, new SimpleMeterRegistry(), true, 100, 500, 20, 100);
+        writeBehindQueue.start();
+
+        // Execute
+        Employee saved = writeBehindQueue.save(1L, request("John")).get(5, TimeUnit.SECONDS);
+
+        // Verify
+        assertEquals("John", saved.getFirstName());
+        verify(employeeService, times(1)).saveAll(eq(1L), anyList());
+    }
+
+    @Test
+    void testFailedBatchFailsItsFutures() {
+        // Prepare
+        when(employeeService.saveAll(eq(9L), anyList()))
+                .thenThrow(new ResourceNotFoundException("Department does not exist with ID: 9"));
+        writeBehindQueue = new EmployeeWriteBehindQueue(employeeService, new SimpleMeterRegistry(), true, 100, 500, 20, 100);
+        writeBehindQueue.start();
+
+        // Execute
+        CompletableFuture<Employee> result = writeBehindQueue.save(9L, request("John"));
+
+        // Verify
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof ResourceNotFoundException);
+    }
+
+    @Test
+    void testFailedBatchIsRetriedOneByOne() throws Exception {
+        // Prepare
+        when(employeeService.saveAll(eq(1L), argThat(requests -> requests.stream()
+                .anyMatch(request -> "Bad".equals(request.getFirstName())))))
+                .thenThrow(new DataIntegrityViolationException("value too long"));
+        writeBehindQueue = new EmployeeWriteBehindQueue(employeeService, new SimpleMeterRegistry(), true, 100, 3, 1000, 100);
+
+        // Execute
+        CompletableFuture<Employee> first = writeBehindQueue.save(1L, request("First"));
+        CompletableFuture<Employee> bad = writeBehindQueue.save(1L, request("Bad"));
+        CompletableFuture<Employee> third = writeBehindQueue.save(1L, request("Third"));
+        writeBehindQueue.start();
+
+        // Verify
+        assertEquals("First", first.get(5, TimeUnit.SECONDS).getFirstName());
+        assertEquals("Third", third.get(5, TimeUnit.SECONDS).getFirstName());
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> bad.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof DataIntegrityViolationException);
+        verify(employeeService, times(1)).saveAll(eq(1L), argThat(requests -> requests.size() == 3));
+        verify(employeeService, times(3)).saveAll(eq(1L), argThat(requests -> requests.size() == 1));
+    }
+
+    @Test
+    void testSaveIsRejectedAfterShutdown() throws Exception {
+        // Prepare
+        writeBehindQueue = new EmployeeWriteBehindQueue(employeeService, new SimpleMeterRegistry(), true, 100, 500, 20, 100);
+        writeBehindQueue.start();
+        writeBehindQueue.destroy();
+
+        // Execute and Verify
+        assertThrows(ServiceUnavailableException.class, () -> writeBehindQueue.save(1L, request("John")));
+        verify(employeeService, never()).saveAll(any(), any());
+    }
+
+    @Test
+    void testFullQueueAppliesBackpressure() {
+        // Prepare
+        writeBehindQueue = new EmployeeWriteBehindQueue(employeeService, new SimpleMeterRegistry(), true, 1, 500, 20, 10);
+        writeBehindQueue.save(1L, request("First"));
+
+        // Execute and Verify
+        assertThrows(ServiceUnavailableException.class, () -> writeBehindQueue.save(1L, request("Second")));
+        verify(employeeService, never()).saveAll(any(), any());
+    }
+
+    @Test
+    void testDisabledSavesImmediately() {
+        // Prepare
+        Employee employee = new Employee();
+        EmployeeRequest request = request("John");
+        when(employeeService.save(1L, request)).thenReturn(employee);
+        writeBehindQueue = new EmployeeWriteBehindQueue(employeeService, new SimpleMeterRegistry(), false, 100, 500, 20, 100);
+
+        // Execute
+        CompletableFuture<Employee> result = writeBehindQueue.save(1L, request);
+
+        // Verify
+        assertTrue(result.isDone());
+        assertSame(employee, result.join());
+        verify(employeeService, never()).saveAll(any(), any());
+    }
+
+    private static EmployeeRequest request(String firstName) {
+        EmployeeRequest request = new EmployeeRequest();
+        request.setFirstName(firstName);
+        request.setLastName("Doe");
+        return request;
+    }
+}
@@ -0,0 +1,139 @@
+package com.foodtech.exercise.service;
+
+import com.foodtech.exercise.exception.ConflictException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class OptimisticLockRetryTest {
+
+    private PlatformTransactionManager transactionManager;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testRetriesUntilCommitted() {
+        // Prepare
+        OptimisticLockRetry retry = new OptimisticLockRetry(transactionManager, meterRegistry, 3, 1, 1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Execute
+        String result = retry.execute("test.update", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("Row was updated by another transaction");
+            }
+            return "updated";
+        });
+
+        // Verify
+        assertEquals("updated", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, conflicts("retried"));
+        assertEquals(0.0, conflicts("exhausted"));
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    @Test
+    void testGivesUpAfterMaxAttempts() {
+        // Prepare
+        OptimisticLockRetry retry = new OptimisticLockRetry(transactionManager, meterRegistry, 2, 1, 1);
+
+        // Execute and Verify
+        assertThrows(ConflictException.class, () -> retry.execute("test.update", () -> {
+            throw new OptimisticLockingFailureException("Row was updated by another transaction");
+        }));
+        assertEquals(1.0, conflicts("retried"));
+        assertEquals(1.0, conflicts("exhausted"));
+    }
+
+    @Test
+    void testOtherFailuresAreNotRetried() {
+        // Prepare
+        OptimisticLockRetry retry = new OptimisticLockRetry(transactionManager, meterRegistry, 3, 1, 1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        // Execute and Verify
+        assertThrows(ConflictException.class, () -> retry.execute("test.update", () -> {
+            attempts.incrementAndGet();
+            throw new ConflictException("Version mismatch");
+        }));
+        assertEquals(1, attempts.get());
+        assertEquals(0.0, conflicts("retried"));
+    }
+
+    @Test
+    void testNoUpdateIsLostUnderContention() throws Exception {
+        // Prepare
+        int writers = 8;
+        int updatesPerWriter = 50;
+        OptimisticLockRetry retry = new OptimisticLockRetry(transactionManager, meterRegistry, 1000, 1, 5);
+        AtomicLong version = new AtomicLong();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Execute
+        for (int w = 0; w < writers; w++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int u = 0; u < updatesPerWriter; u++) {
+                    retry.execute("test.update", () -> {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        try {
+                            long read = version.get();
+                            LockSupport.parkNanos(100_000);
+                            if (!version.compareAndSet(read, read + 1)) {
+                                throw new OptimisticLockingFailureException("Version " + read + " is stale");
+                            }
+                            return read + 1;
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    });
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Verify
+        assertEquals(writers * updatesPerWriter, version.get());
+        assertEquals(0.0, conflicts("exhausted"));
+        assertTrue(maxInFlight.get() > 1, "writers should run concurrently instead of being serialized");
+    }
+
+    private double conflicts(String outcome) {
+        return meterRegistry.counter("service.optimistic_lock.conflicts", "operation", "test.update", "outcome", outcome).count();
+    }
+}
@@ -0,0 +1,112 @@
+package com.foodtech.exercise.service;
+
+import com.foodtech.exercise.repository.ChangeEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class OutboxSequencerTest {
+
+    private ChangeEventRepository changeEventRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private OutboxSequencer outboxSequencer;
+
+    @BeforeEach
+    void setUp() {
+        changeEventRepository = mock(ChangeEventRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        outboxSequencer = new OutboxSequencer(changeEventRepository, eventPublisher);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testSequencerAssignsPositionsAndAnnouncesThemAfterCommit() {
+        // Prepare
+        when(changeEventRepository.tryAdvisoryXactLock(OutboxSequencer.LOCK_KEY)).thenReturn(true);
+        when(changeEventRepository.findLastPosition()).thenReturn(12L);
+
+        // Execute
+        outboxSequencer.sequence();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        commit();
+
+        // Verify
+        verify(changeEventRepository, times(1)).assignPositions(OutboxSequencer.BATCH_SIZE);
+        verify(eventPublisher, times(1)).publishEvent(new OutboxCommittedEvent(12L));
+    }
+
+    @Test
+    void testSequencerDrainsBacklogInBatches() {
+        // Prepare
+        when(changeEventRepository.tryAdvisoryXactLock(OutboxSequencer.LOCK_KEY)).thenReturn(true);
+        when(changeEventRepository.assignPositions(OutboxSequencer.BATCH_SIZE))
+                .thenReturn(OutboxSequencer.BATCH_SIZE, OutboxSequencer.BATCH_SIZE, 3);
+        when(changeEventRepository.findLastPosition()).thenReturn(2003L);
+
+        // Execute
+        outboxSequencer.sequence();
+        commit();
+
+        // Verify
+        verify(changeEventRepository, times(3)).assignPositions(OutboxSequencer.BATCH_SIZE);
+        verify(eventPublisher, times(1)).publishEvent(new OutboxCommittedEvent(2003L));
+    }
+
+    @Test
+    void testSequencerWithoutLockOnlyAnnouncesNewPositions() {
+        // Prepare
+        when(changeEventRepository.tryAdvisoryXactLock(OutboxSequencer.LOCK_KEY)).thenReturn(false);
+        when(changeEventRepository.findLastPosition()).thenReturn(12L, 12L, 15L);
+
+        // Execute
+        for (int i = 0; i < 3; i++) {
+            TransactionSynchronizationManager.initSynchronization();
+            outboxSequencer.sequence();
+            commit();
+        }
+
+        // Verify
+        verify(changeEventRepository, never()).assignPositions(anyInt());
+        verify(eventPublisher, times(1)).publishEvent(new OutboxCommittedEvent(12L));
+        verify(eventPublisher, times(1)).publishEvent(new OutboxCommittedEvent(15L));
+    }
+
+    @Test
+    void testRolledBackSequencerDoesNotAnnounce() {
+        // Prepare
+        when(changeEventRepository.tryAdvisoryXactLock(OutboxSequencer.LOCK_KEY)).thenReturn(true);
+        when(changeEventRepository.findLastPosition()).thenReturn(12L);
+
+        // Execute
+        outboxSequencer.sequence();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        outboxSequencer.sequence();
+        commit();
+
+        // Verify
+        verify(eventPublisher, times(1)).publishEvent(new OutboxCommittedEvent(12L));
+    }
+
+    private static void commit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -0,0 +1,90 @@
+package com.foodtech.exercise.service;
+
+import com.foodtech.exercise.dto.response.ChangeFeedResponse;
+import com.foodtech.exercise.exception.BadRequestException;
+import com.foodtech.exercise.exception.GoneException;
+import com.foodtech.exercise.model.ChangeEvent;
+import com.foodtech.exercise.model.ChangeEvent.AggregateType;
+import com.foodtech.exercise.model.ChangeEvent.Operation;
+import com.foodtech.exercise.repository.ChangeEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class OutboxServiceTest {
+
+    private ChangeEventRepository changeEventRepository;
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        changeEventRepository = mock(ChangeEventRepository.class);
+        outboxService = new OutboxService(changeEventRepository, Duration.ofDays(7));
+    }
+
+    @Test
+    void testAppendInsertsEventsInOneBatch() {
+        // Execute
+        outboxService.append(AggregateType.EMPLOYEE, Arrays.asList(1L, 2L), Operation.CREATED);
+        outboxService.append(AggregateType.EMPLOYEE, Collections.emptyList(), Operation.UPDATED);
+
+        // Verify
+        verify(changeEventRepository, times(1)).insertAll(eq(AggregateType.EMPLOYEE), eq(Arrays.asList(1L, 2L)),
+                eq(Operation.CREATED), any(Date.class));
+        verify(changeEventRepository, never()).insertAll(any(), eq(Collections.emptyList()), any(), any());
+        verify(changeEventRepository, never()).save(any());
+    }
+
+    @Test
+    void testFindChangesReturnsLastPosition() {
+        // Prepare
+        ChangeEvent event = new ChangeEvent(AggregateType.EMPLOYEE, 1L, Operation.CREATED, new Date());
+        event.setId(101L);
+        event.setPosition(42L);
+        when(changeEventRepository.findByPositionGreaterThanOrderByPositionAsc(7L, PageRequest.of(0, 10)))
+                .thenReturn(Collections.singletonList(event));
+        when(changeEventRepository.findByPositionGreaterThanOrderByPositionAsc(42L, PageRequest.of(0, 10)))
+                .thenReturn(Collections.emptyList());
+
+        // Execute
+        ChangeFeedResponse result = outboxService.findChanges(7L, 10);
+        ChangeFeedResponse empty = outboxService.findChanges(42L, 10);
+
+        // Verify
+        assertEquals(42L, result.getLastSequence());
+        assertEquals(1, result.getEvents().size());
+        assertEquals(42L, empty.getLastSequence());
+        assertTrue(empty.getEvents().isEmpty());
+    }
+
+    @Test
+    void testFindChangesAfterPurgedPositionIsGone() {
+        // Prepare
+        when(changeEventRepository.findByPositionGreaterThanOrderByPositionAsc(anyLong(), any()))
+                .thenReturn(Collections.emptyList());
+        when(changeEventRepository.findFirstPosition()).thenReturn(20L);
+
+        // Execute and Verify
+        assertThrows(GoneException.class, () -> outboxService.findChanges(18L, 10));
+        assertEquals(19L, outboxService.findChanges(19L, 10).getLastSequence());
+        assertEquals(0L, outboxService.findChanges(0L, 10).getLastSequence());
+    }
+
+    @Test
+    void testFindChangesWithInvalidArguments() {
+        // Execute and Verify
+        assertThrows(BadRequestException.class, () -> outboxService.findChanges(-1L, 10));
+        assertThrows(BadRequestException.class, () -> outboxService.findChanges(0L, 0));
+        assertThrows(BadRequestException.class, () -> outboxService.findChanges(0L, OutboxService.MAX_LIMIT + 1));
+    }
+}
@@ -0,0 +1,41 @@
+// Compares the p99 latency of the blocking read endpoints with their /api/v1/async variants under the same
+// concurrent slow-read load:
+//   k6 run -e BASE_URL=http://localhost:8080 src/test/k6/async-reads.js
+// The summary lists http_req_duration for mode:blocking and mode:async; both scenarios run one after the other.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = `${__ENV.BASE_URL || 'http://localhost:8080'}/api/v1`;
+const VUS = Number(__ENV.VUS || 400);
+
+function scenario(mode, startTime) {
+    return {
+        executor: 'constant-vus',
+        exec: 'read',
+        vus: VUS,
+        duration: '2m',
+        startTime,
+        env: { MODE: mode },
+        tags: { mode },
+    };
+}
+
+export const options = {
+    scenarios: {
+        blocking: scenario('blocking', '0s'),
+        async: scenario('async', '2m30s'),
+    },
+    // Thresholds make k6 report the p99 of each mode separately
+    thresholds: {
+        'http_req_duration{mode:blocking}': ['p(99)<10000'],
+        'http_req_duration{mode:async}': ['p(99)<10000'],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function read() {
+    const prefix = __ENV.MODE === 'async' ? `${BASE_URL}/async` : BASE_URL;
+    const response = http.get(`${prefix}/departments/summaries`);
+    // The async endpoints shed load with 503 instead of queueing without bound
+    check(response, { 'read ok or shed': r => r.status === 200 || r.status === 503 });
+}
@@ -0,0 +1,77 @@
+// Mixed read/write load against a running instance, used to validate the prod profile:
+//   k6 run -e BASE_URL=http://localhost:8080 src/test/k6/load-test.js
+// Watch hikaricp.connections.acquire, hikaricp.connections.pending and http.server.requests.shed while it runs.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = `${__ENV.BASE_URL || 'http://localhost:8080'}/api/v1`;
+const DEPARTMENTS = 10;
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'constant-arrival-rate',
+            exec: 'read',
+            rate: 500,
+            timeUnit: '1s',
+            duration: '3m',
+            preAllocatedVUs: 50,
+            maxVUs: 200,
+        },
+        writes: {
+            executor: 'ramping-arrival-rate',
+            exec: 'write',
+            startRate: 10,
+            timeUnit: '1s',
+            preAllocatedVUs: 50,
+            maxVUs: 400,
+            stages: [
+                { target: 100, duration: '1m' },
+                { target: 1000, duration: '1m' },
+                { target: 100, duration: '1m' },
+            ],
+        },
+    },
+    thresholds: {
+        // Reads must stay fast and available while writes are shed
+        'http_req_duration{scenario:reads}': ['p(95)<100', 'p(99)<250'],
+        'http_req_failed{scenario:reads}': ['rate<0.001'],
+        'checks{scenario:writes}': ['rate>0.99'],
+    },
+};
+
+export function setup() {
+    const departments = [];
+    for (let i = 0; i < DEPARTMENTS; i++) {
+        const response = http.post(`${BASE_URL}/departments`,
+            JSON.stringify({ name: `Load test ${Date.now()} ${i}` }), JSON_HEADERS);
+        check(response, { 'department created': r => r.status === 200 });
+        departments.push(response.json('id'));
+    }
+    return { departments };
+}
+
+export function read(data) {
+    const departmentId = pick(data.departments);
+    const response = Math.random() < 0.5
+        ? http.get(`${BASE_URL}/departments/${departmentId}/employees?size=20`, { tags: { name: 'department employees' } })
+        : http.get(`${BASE_URL}/employees/paginated/keyset?size=20`, { tags: { name: 'employees keyset' } });
+    check(response, { 'read ok': r => r.status === 200 });
+}
+
+export function write(data) {
+    const departmentId = pick(data.departments);
+    const response = http.post(`${BASE_URL}/departments/${departmentId}/employees`,
+        JSON.stringify({ firstName: 'Load', lastName: `Test ${__VU}-${__ITER}` }),
+        { headers: { 'Content-Type': 'application/json', 'X-Client-Id': `vu-${__VU % 20}` }, tags: { name: 'create employee' } });
+    // Shed writes are expected under the peak; they have to be rejected quickly and never fail otherwise
+    check(response, {
+        'write accepted or shed': r => r.status === 200 || r.status === 429,
+        'shed quickly': r => r.status !== 429 || r.timings.duration < 20,
+    });
+}
+
+function pick(values) {
+    return values[Math.floor(Math.random() * values.length)];
+}